@@ -0,0 +1,71 @@
+package shop.biday.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import shop.biday.model.dto.AuctionEvent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * sizeId 와 정렬 기준별 진행 중인 경매 목록 캐시.
+ * 경매 등록/수정/삭제/종료 시 해당 sizeId 의 목록(과 sizeId 없이 조회한 전체 목록)을 비운다.
+ * endedAt >= now() 조건이 시간에 따라 바뀌므로 ttl 이 지나면 다시 읽는다.
+ * max-entries 를 넘으면 전체를 비우지 않고 가장 오래 쓰지 않은 목록부터 버린다.
+ */
+@Slf4j
+@Component
+public class AuctionListingCache {
+
+    private final LruMap<ListingKey, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final long ttlMillis;
+
+    public AuctionListingCache(@Value("${auction.listing.cache.ttl-ms:30000}") long ttlMillis,
+                               @Value("${auction.listing.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LruMap<>(maxEntries);
+        this.ttlMillis = ttlMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(ListingKey key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return (T) entry.value();
+        }
+
+        // 조회 도중 무효화가 일어났다면 읽은 값이 이미 오래된 것일 수 있으므로 저장하지 않는다.
+        // 무효화는 generation 을 올린 뒤 같은 잠금 안에서 항목을 지우므로, 잠금 안에서 다시 확인하고 넣으면
+        // 확인과 저장 사이에 끼어든 무효화가 저장한 값을 놓치지 않는다.
+        long loadedGeneration = generation.get();
+        T value = loader.get();
+        Entry loaded = new Entry(value, now + ttlMillis);
+        entries.compute(key, (k, previous) -> loadedGeneration == generation.get() ? loaded : previous);
+        return value;
+    }
+
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        invalidate(event.auction().getSizeId());
+        if (!Objects.equals(event.previousSizeId(), event.auction().getSizeId())) {
+            invalidate(event.previousSizeId());
+        }
+    }
+
+    public void invalidate(Long sizeId) {
+        generation.incrementAndGet();
+        entries.removeIf(key -> key.sizeId() == null || Objects.equals(key.sizeId(), sizeId));
+        log.debug("AuctionListingCache invalidated sizeId: {}", sizeId);
+    }
+
+    public record ListingKey(String query, Long sizeId, String order, Long cursor, int size) {
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,182 @@
+package shop.biday.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.dto.AuctionEvent;
+import shop.biday.model.repository.AuctionReadRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 입찰 검증에 필요한 경매 정보(시작가, 시작/종료 시각, 상태) 캐시.
+ * 입찰 경로에서 MySQL 을 조회하지 않도록 경매 이벤트로 갱신하고, 없을 때만 경매마다 한 번 읽는다.
+ * 경매 이벤트는 이 노드의 변경만 알려 주므로 broadcast 를 켜면 바뀐 auctionId 를 Redis 채널(auction.metadata.cache.channel)로 알려
+ * 다른 노드는 그 항목을 버리고 다시 읽는다. 메시지를 놓쳐도 ttl-ms 가 지나면 다시 읽는다.
+ * max-entries 를 넘으면 가장 오래 쓰지 않은 경매부터 버린다.
+ * 읽는 도중 이벤트나 무효화가 들어오면 읽은 값이 더 오래된 것이므로 저장하지 않는다. (경매별 generation, AuctionListingCache 와 같은 방식)
+ * 없는 경매도 negative-ttl-ms 동안 기억해 없는 auctionId 로 들어오는 입찰이 매번 MySQL 을 읽지 않게 한다.
+ */
+@Slf4j
+@Component
+public class AuctionMetadataCache {
+
+    // 경매마다 generation 을 두면 끝없이 늘어나므로 auctionId 를 고정된 칸에 나눠 담는다. 같은 칸의 다른 경매가 바뀌면 저장을 한 번 건너뛸 뿐이다.
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<Long, Mono<AuctionMetadata>> loading = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final LruMap<Long, Entry> entries;
+
+    private final AuctionReadRepository auctionReadRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final boolean broadcast;
+    private final String channel;
+    // 자기가 보낸 무효화 메시지는 건너뛴다.
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private Disposable subscription = Disposables.disposed();
+
+    public AuctionMetadataCache(AuctionReadRepository auctionReadRepository,
+                                ReactiveStringRedisTemplate redisTemplate,
+                                @Value("${auction.metadata.cache.max-entries:100000}") int maxEntries,
+                                @Value("${auction.metadata.cache.ttl-ms:60000}") long ttlMillis,
+                                @Value("${auction.metadata.cache.negative-ttl-ms:5000}") long negativeTtlMillis,
+                                @Value("${auction.metadata.cache.broadcast:${auction.redis.enabled:false}}") boolean broadcast,
+                                @Value("${auction.metadata.cache.channel:auction:metadata:invalidate}") String channel) {
+        this.auctionReadRepository = auctionReadRepository;
+        this.redisTemplate = redisTemplate;
+        this.entries = new LruMap<>(maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.broadcast = broadcast;
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!broadcast) {
+            return;
+        }
+        subscription = redisTemplate.listenToChannel(channel)
+                .doOnNext(message -> onInvalidate(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("AuctionMetadataCache 무효화 채널 재구독: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    public Mono<AuctionMetadata> get(Long auctionId) {
+        return Mono.defer(() -> {
+            Entry entry = entries.get(auctionId);
+            return entry != null && entry.expiresAt() > System.currentTimeMillis()
+                    ? Mono.justOrEmpty(entry.metadata())
+                    : loading.computeIfAbsent(auctionId, this::load);
+        });
+    }
+
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED, CLOSED -> {
+                AuctionMetadata metadata = AuctionMetadata.of(event.auction());
+                invalidate(metadata.id());
+                entries.put(metadata.id(), new Entry(metadata, System.currentTimeMillis() + ttlMillis));
+            }
+            case DELETED -> {
+                invalidate(event.auctionId());
+                entries.remove(event.auctionId());
+            }
+        }
+        if (broadcast) {
+            redisTemplate.convertAndSend(channel, nodeId + ":" + event.auctionId())
+                    .subscribe(null, e -> log.warn("AuctionMetadataCache 무효화 전송 실패 auctionId: {}, {}",
+                            event.auctionId(), e.getMessage()));
+        }
+    }
+
+    private void onInvalidate(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+            return;
+        }
+        try {
+            Long auctionId = Long.valueOf(message.substring(separator + 1));
+            invalidate(auctionId);
+            entries.remove(auctionId);
+            log.debug("AuctionMetadataCache invalidated auctionId: {}", auctionId);
+        } catch (NumberFormatException e) {
+            log.warn("AuctionMetadataCache 잘못된 무효화 메시지: {}", message);
+        }
+    }
+
+    private Mono<AuctionMetadata> load(Long auctionId) {
+        long loadedGeneration = generation(auctionId);
+        return auctionReadRepository.findAuction(auctionId)
+                .map(AuctionMetadata::of)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(metadata -> store(auctionId, metadata.orElse(null), loadedGeneration))
+                .flatMap(Mono::justOrEmpty)
+                .doFinally(signal -> loading.remove(auctionId))
+                .cache();
+    }
+
+    /**
+     * 읽기 시작한 뒤 generation 이 바뀌지 않았을 때만 저장한다. 무효화는 generation 을 올린 뒤 항목을 바꾸므로
+     * 잠금 안에서 확인하고 넣으면 더 새로운 값을 덮어쓰지 않는다. metadata 가 null 이면 없는 경매로 기억한다.
+     */
+    private void store(Long auctionId, AuctionMetadata metadata, long loadedGeneration) {
+        long ttl = metadata != null ? ttlMillis : negativeTtlMillis;
+        Entry loaded = new Entry(metadata, System.currentTimeMillis() + ttl);
+        entries.compute(auctionId, (id, previous) -> generation(id) == loadedGeneration ? loaded : previous);
+    }
+
+    private void invalidate(Long auctionId) {
+        generations.incrementAndGet(stripe(auctionId));
+    }
+
+    private long generation(Long auctionId) {
+        return generations.get(stripe(auctionId));
+    }
+
+    private static int stripe(Long auctionId) {
+        return Long.hashCode(auctionId) & (GENERATION_STRIPES - 1);
+    }
+
+    private record Entry(AuctionMetadata metadata, long expiresAt) {
+    }
+
+    public record AuctionMetadata(Long id, Long startingBid, LocalDateTime startedAt, LocalDateTime endedAt, boolean status) {
+
+        static AuctionMetadata of(AuctionDto auction) {
+            return new AuctionMetadata(auction.getId(), auction.getStartingBid(),
+                    auction.getStartedAt(), auction.getEndedAt(), auction.isStatus());
+        }
+
+        public boolean isOpen(LocalDateTime now) {
+            return !status && !now.isBefore(startedAt) && now.isBefore(endedAt);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package shop.biday.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+import shop.biday.model.document.AuctionStateDocument;
+import shop.biday.model.dto.BidResponse;
+import shop.biday.model.dto.BidSummary;
+import shop.biday.model.repository.BidRepository;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 진행 중인 경매별 최고 입찰과 입찰 수를 메모리에 보관하는 원장.
+ * 낮은 입찰을 I/O 없이 걸러내고 조회용 스냅샷을 제공하며,
+ * 기동 시 bids 컬렉션에서 다시 구성된다. 구성하면서 auction_states 문서가 없는 경매는 함께 채운다.
+ * 구성이 끝나기 전에 받은 입찰은 채우기 전의 빈 상태 위에 쓰이므로, 입찰 경로는 awaitReady 로 구성이 끝나기를 기다린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BidLedger {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Sinks.Empty<Void> ready = Sinks.empty();
+    private final BidRepository bidRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        bidRepository.findOpenBidSummaries()
+                .doOnNext(summary -> merge(Entry.of(summary)))
+                .flatMap(bidRepository::initAuctionState)
+                .count()
+                .doOnError(e -> log.error("BidLedger rebuild 실패, 다시 시도합니다. {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(count -> {
+                    log.info("BidLedger rebuilt auctions: {}", count);
+                    ready.tryEmitEmpty();
+                });
+    }
+
+    public Mono<Void> awaitReady() {
+        return ready.asMono();
+    }
+
+    /**
+     * 원장에 이미 같거나 높은 입찰이 있으면 DB 를 거치지 않고 거절할 수 있다.
+     * 원장 값은 실제 최고가보다 낮을 수는 있어도 높을 수는 없으므로 여기서의 거절은 항상 안전하다.
+     */
+    public boolean isOutbid(Long auctionId, BigInteger amount) {
+        Entry entry = entries.get(auctionId);
+        return entry != null && entry.currentBid().compareTo(amount) >= 0;
+    }
+
+    /**
+     * 갱신된 경매 상태를 원장에 반영한다. 최고 입찰과 입찰 수는 단조 증가하므로 큰 값을 남긴다.
+     */
+    public BidResponse merge(AuctionStateDocument state) {
+        return merge(new Entry(state.getAuctionId(), state.getUserId(), state.getCurrentBid(),
+                state.getBidedAt(), state.getCount())).toResponse();
+    }
+
+    public Optional<BidResponse> find(Long auctionId) {
+        return Optional.ofNullable(entries.get(auctionId)).map(Entry::toResponse);
+    }
+
+    public void evict(Long auctionId) {
+        entries.remove(auctionId);
+    }
+
+    private Entry merge(Entry incoming) {
+        return entries.merge(incoming.auctionId(), incoming, Entry::merge);
+    }
+
+    private record Entry(Long auctionId, String userId, BigInteger currentBid, LocalDateTime bidedAt, long count) {
+
+        static Entry of(BidSummary summary) {
+            return new Entry(summary.getAuctionId(), summary.getUserId(), summary.getCurrentBid(),
+                    summary.getBidedAt(), summary.getCount());
+        }
+
+        Entry merge(Entry other) {
+            Entry top = other.isHigher(currentBid, bidedAt) ? this : other;
+            return new Entry(auctionId, top.userId, top.currentBid, top.bidedAt, Math.max(count, other.count));
+        }
+
+        // 금액이 같으면 먼저 입찰한 쪽이 우선한다.
+        boolean isHigher(BigInteger amount, LocalDateTime at) {
+            int compared = amount.compareTo(currentBid);
+            return compared > 0 || (compared == 0 && at != null && bidedAt != null && at.isBefore(bidedAt));
+        }
+
+        BidResponse toResponse() {
+            return BidResponse.builder()
+                    .auctionId(auctionId)
+                    .currentBid(currentBid)
+                    .award(false)
+                    .count(count)
+                    .bidedAt(bidedAt)
+                    .build();
+        }
+    }
+}
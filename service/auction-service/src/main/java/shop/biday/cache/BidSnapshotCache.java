@@ -0,0 +1,121 @@
+package shop.biday.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import shop.biday.cache.AuctionMetadataCache.AuctionMetadata;
+import shop.biday.model.document.AuctionStateDocument;
+import shop.biday.model.dto.BidResponse;
+import shop.biday.model.repository.BidRepository;
+import shop.biday.service.AuctionService;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SSE 구독 시작 시 보낼 경매별 입찰 스냅샷.
+ * 단일 노드(auction.bid.fanout.redis=false)에서는 모든 입찰이 지나가는 BidLedger 를 그대로 사용한다.
+ * Redis 로 여러 노드에 입찰을 나누어 받을 때는 이 노드의 원장이 다른 노드의 입찰을 모르므로 매번 auction_states 를 읽는다.
+ * 아직 입찰이 없는 경매는 경매 정보로 만든 스냅샷을 짧게 보관한다.
+ * 진행 중이 아닌 경매는 원장에 다시 넣지 않고, 종료된 경매의 최고 입찰은 낙찰로 표시한다.
+ * 캐시에 없으면 경매마다 한 번만 조회하고, 동시에 들어온 구독자는 같은 결과를 기다린다.
+ */
+@Slf4j
+@Component
+public class BidSnapshotCache {
+
+    private final Map<Long, Mono<BidResponse>> loading = new ConcurrentHashMap<>();
+    private final Map<Long, Placeholder> placeholders = new ConcurrentHashMap<>();
+
+    private final BidLedger bidLedger;
+    private final BidRepository bidRepository;
+    private final AuctionService auctionService;
+    private final AuctionMetadataCache auctionMetadataCache;
+    private final boolean useLedger;
+    private final long placeholderTtlMillis;
+
+    public BidSnapshotCache(BidLedger bidLedger,
+                            BidRepository bidRepository,
+                            AuctionService auctionService,
+                            AuctionMetadataCache auctionMetadataCache,
+                            @Value("${auction.bid.fanout.redis:${auction.redis.enabled:false}}") boolean redisFanout,
+                            @Value("${auction.bid.snapshot.placeholder-ttl-ms:10000}") long placeholderTtlMillis) {
+        this.bidLedger = bidLedger;
+        this.bidRepository = bidRepository;
+        this.auctionService = auctionService;
+        this.auctionMetadataCache = auctionMetadataCache;
+        this.useLedger = !redisFanout;
+        this.placeholderTtlMillis = placeholderTtlMillis;
+    }
+
+    public Mono<BidResponse> get(Long auctionId) {
+        return Mono.defer(() -> lookup(auctionId)
+                .map(Mono::just)
+                .orElseGet(() -> loading.computeIfAbsent(auctionId, this::load)));
+    }
+
+    public void evict(Long auctionId) {
+        bidLedger.evict(auctionId);
+        placeholders.remove(auctionId);
+    }
+
+    private Optional<BidResponse> lookup(Long auctionId) {
+        Optional<BidResponse> snapshot = useLedger ? bidLedger.find(auctionId) : Optional.empty();
+        if (snapshot.isPresent()) {
+            return snapshot;
+        }
+        Placeholder placeholder = placeholders.get(auctionId);
+        if (placeholder == null || placeholder.expiresAt() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(placeholder.response());
+    }
+
+    private Mono<BidResponse> load(Long auctionId) {
+        log.debug("BidSnapshotCache miss auctionId: {}", auctionId);
+        Mono<Optional<AuctionMetadata>> metadata = auctionMetadataCache.get(auctionId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        return bidRepository.findAuctionState(auctionId)
+                .zipWith(metadata)
+                .map(tuple -> toSnapshot(tuple.getT1(), tuple.getT2()))
+                .switchIfEmpty(Mono.defer(() -> loadFromAuction(auctionId)))
+                .doFinally(signal -> loading.remove(auctionId))
+                .cache();
+    }
+
+    private BidResponse toSnapshot(AuctionStateDocument state, Optional<AuctionMetadata> metadata) {
+        boolean open = metadata.map(auction -> auction.isOpen(LocalDateTime.now())).orElse(false);
+        if (open) {
+            return bidLedger.merge(state);
+        }
+        // 종료 시 원장에서 지운 경매를 다시 채우지 않는다.
+        return BidResponse.builder()
+                .auctionId(state.getAuctionId())
+                .currentBid(state.getCurrentBid())
+                .award(metadata.map(AuctionMetadata::status).orElse(false))
+                .count(state.getCount())
+                .bidedAt(state.getBidedAt())
+                .build();
+    }
+
+    private Mono<BidResponse> loadFromAuction(Long auctionId) {
+        return auctionService.findByAuctionId(auctionId)
+                .map(auction -> BidResponse.builder()
+                        .auctionId(auction.getId())
+                        .currentBid(BigInteger.valueOf(auction.getCurrentBid()))
+                        .award(false)
+                        .count(0L)
+                        .bidedAt(auction.getStartedAt())
+                        .build())
+                .doOnNext(response -> placeholders.put(auctionId,
+                        new Placeholder(response, System.currentTimeMillis() + placeholderTtlMillis)));
+    }
+
+    private record Placeholder(BidResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,52 @@
+package shop.biday.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * maxEntries 개까지 보관하고, 넘치면 가장 오래 쓰지 않은 항목부터 하나씩 버리는 Map.
+ * 조회도 순서를 바꾸므로 모든 연산을 잠금 안에서 한다. 잠금 구간은 Map 연산뿐이라 짧다.
+ */
+final class LruMap<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+
+    LruMap(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        return entries.compute(key, function);
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    synchronized void remove(K key, V value) {
+        entries.remove(key, value);
+    }
+
+    synchronized void removeIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,241 @@
+package shop.biday.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.dto.AuctionEvent;
+import shop.biday.model.repository.AuctionRepository;
+import shop.biday.utils.JdbcExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 진행 중인 경매를 (endedAt, id) 순으로 정렬해 sizeId 별로 보관하는 인덱스.
+ * "종료 임박 순" 목록을 DB 조회 없이 O(log n + page) 로 커서 페이지를 만든다.
+ * 경매 등록/수정/종료/삭제 이벤트로 갱신되고, 기동 시 AuctionRepository 에서 다시 채운다.
+ * 이벤트는 이 노드에서 일어난 변경만 알려 주므로 resync-ms 마다 DB 의 열린 경매로 다시 맞춘다.
+ * 다시 맞추는 동안 이벤트가 들어온 경매는 이벤트 쪽이 더 새로우므로 건드리지 않는다.
+ * 목록 항목만 보관하므로 description 은 담지 않는다.
+ */
+@Slf4j
+@Component
+public class OpenAuctionIndex {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::endedAt).thenComparing(Key::id);
+
+    private final Map<Long, AuctionDto> auctions = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentSkipListMap<Key, AuctionDto>> bySize = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Key, AuctionDto> all = new ConcurrentSkipListMap<>(KEY_ORDER);
+    // 다시 맞추기 시작한 뒤 이벤트로 바뀐 경매.
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private final AuctionRepository auctionRepository;
+    private final JdbcExecutor jdbcExecutor;
+    private final Duration resyncInterval;
+
+    private volatile boolean ready = false;
+    private Disposable subscription = Disposables.disposed();
+
+    public OpenAuctionIndex(AuctionRepository auctionRepository,
+                            JdbcExecutor jdbcExecutor,
+                            @Value("${auction.index.resync-ms:60000}") long resyncMillis) {
+        this.auctionRepository = auctionRepository;
+        this.jdbcExecutor = jdbcExecutor;
+        this.resyncInterval = Duration.ofMillis(resyncMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<AuctionDto> openAuctions = auctionRepository.findOpenAuctions();
+        openAuctions.forEach(this::put);
+        ready = true;
+        log.info("OpenAuctionIndex rebuilt auctions: {}", openAuctions.size());
+
+        subscription = Flux.interval(resyncInterval, resyncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> resync()
+                        .onErrorResume(e -> {
+                            log.warn("OpenAuctionIndex resync 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    /**
+     * DB 에 없는 경매는 빼고 DB 의 경매는 넣는다. 다른 노드에서 등록/수정/종료/삭제된 경매가 이때 반영된다.
+     */
+    public Mono<Integer> resync() {
+        return Mono.fromRunnable(touched::clear)
+                .then(jdbcExecutor.call(auctionRepository::findOpenAuctions))
+                .map(openAuctions -> {
+                    Set<Long> openIds = new HashSet<>();
+                    for (AuctionDto auction : openAuctions) {
+                        openIds.add(auction.getId());
+                        if (!touched.contains(auction.getId())) {
+                            put(auction);
+                        }
+                    }
+                    auctions.keySet().stream()
+                            .filter(auctionId -> !openIds.contains(auctionId) && !touched.contains(auctionId))
+                            .toList()
+                            .forEach(this::remove);
+                    log.debug("OpenAuctionIndex resync auctions: {}", openAuctions.size());
+                    return openAuctions.size();
+                });
+    }
+
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        touched.add(event.auctionId());
+        switch (event.type()) {
+            case CREATED, UPDATED -> put(event.auction());
+            case CLOSED, DELETED -> remove(event.auctionId());
+        }
+    }
+
+    /**
+     * sizeId 가 없으면 전체에서 찾는다. 인덱스가 준비되지 않았거나 커서 경매가 인덱스에 없으면 비어 있는 값을 돌려주고,
+     * 호출한 쪽은 DB 조회로 넘어간다.
+     */
+    public Optional<Slice<AuctionDto>> findEndingSoon(Long sizeId, Long cursor, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        NavigableMap<Key, AuctionDto> index = sizeId != null
+                ? bySize.getOrDefault(sizeId, new ConcurrentSkipListMap<>(KEY_ORDER))
+                : all;
+        if (cursor != null) {
+            AuctionDto cursorAuction = auctions.get(cursor);
+            if (cursorAuction == null) {
+                return Optional.empty();
+            }
+            index = index.tailMap(Key.of(cursorAuction), false);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AuctionDto> page = new ArrayList<>(pageable.getPageSize() + 1);
+        for (AuctionDto auction : index.values()) {
+            // 종료 시각이 지났지만 아직 종료 처리되지 않은 경매는 건너뛴다.
+            if (auction.getEndedAt().isBefore(now)) {
+                continue;
+            }
+            page.add(auction);
+            if (page.size() > pageable.getPageSize()) {
+                break;
+            }
+        }
+
+        boolean hasNext = page.size() > pageable.getPageSize();
+        if (hasNext) {
+            page.remove(page.size() - 1);
+        }
+        return Optional.of(new SliceImpl<>(page, pageable, hasNext));
+    }
+
+    /**
+     * 목록에 보이는 현재가만 바꾸므로 정렬 키는 그대로다.
+     * 이미 돌려준 목록이 들고 있는 DTO 를 바꾸지 않도록 현재가를 바꾼 새 DTO 로 교체한다.
+     */
+    public void updateCurrentBid(Long auctionId, Long currentBid) {
+        auctions.computeIfPresent(auctionId, (id, previous) -> {
+            if (previous.getCurrentBid() != null && previous.getCurrentBid() >= currentBid) {
+                return previous;
+            }
+            AuctionDto auction = previous.toBuilder().currentBid(currentBid).build();
+            Key key = Key.of(auction);
+            all.put(key, auction);
+            ConcurrentSkipListMap<Key, AuctionDto> sizeIndex = bySize.get(auction.getSizeId());
+            if (sizeIndex != null) {
+                sizeIndex.put(key, auction);
+            }
+            return auction;
+        });
+    }
+
+    /**
+     * 캐시된 목록에 write-behind 로 반영된 현재가를 덧씌운다. 현재가가 오른 경매만 복사해 바꾸고, 바뀐 것이 없으면 그대로 돌려준다.
+     */
+    public List<AuctionDto> withCurrentBids(List<AuctionDto> listed) {
+        List<AuctionDto> result = null;
+        for (int i = 0; i < listed.size(); i++) {
+            AuctionDto auction = listed.get(i);
+            AuctionDto indexed = auctions.get(auction.getId());
+            if (indexed != null && indexed.getCurrentBid() != null
+                    && (auction.getCurrentBid() == null || auction.getCurrentBid() < indexed.getCurrentBid())) {
+                if (result == null) {
+                    result = new ArrayList<>(listed);
+                }
+                result.set(i, auction.toBuilder().currentBid(indexed.getCurrentBid()).build());
+            }
+        }
+        return result != null ? result : listed;
+    }
+
+    private void put(AuctionDto source) {
+        AuctionDto auction = source.toBuilder().description(null).build();
+        auctions.compute(auction.getId(), (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+                // DB 의 현재가는 AuctionPriceService 가 모아서 반영하므로 이 노드가 본 값보다 낮을 수 있다.
+                if (previous.getCurrentBid() != null && (auction.getCurrentBid() == null || previous.getCurrentBid() > auction.getCurrentBid())) {
+                    auction.setCurrentBid(previous.getCurrentBid());
+                }
+            }
+            Key key = Key.of(auction);
+            all.put(key, auction);
+            bySize.computeIfAbsent(auction.getSizeId(), sizeId -> new ConcurrentSkipListMap<>(KEY_ORDER))
+                    .put(key, auction);
+            return auction;
+        });
+    }
+
+    private void remove(Long auctionId) {
+        auctions.computeIfPresent(auctionId, (id, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    private void unlink(AuctionDto auction) {
+        Key key = Key.of(auction);
+        all.remove(key);
+        ConcurrentSkipListMap<Key, AuctionDto> sizeIndex = bySize.get(auction.getSizeId());
+        if (sizeIndex != null) {
+            sizeIndex.remove(key);
+        }
+    }
+
+    private record Key(LocalDateTime endedAt, Long id) {
+
+        static Key of(AuctionDto auction) {
+            return new Key(auction.getEndedAt(), auction.getId());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package shop.biday.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import shop.biday.model.document.BidArchiveDocument;
+import shop.biday.model.repository.BidRepository;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private final BidRepository bidRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        bidRepository.ensureIndexes()
+                .subscribe(index -> log.info("bids index 확인: {}", index),
+                        e -> log.error("bids index 생성 실패: {}", e.getMessage()));
+
+        mongoTemplate.indexOps(BidArchiveDocument.class)
+                .ensureIndex(new Index()
+                        .on("auctionId", Sort.Direction.ASC)
+                        .on("bucket", Sort.Direction.ASC)
+                        .named("auctionId_bucket"))
+                .subscribe(index -> log.info("bid_archives index 확인: {}", index),
+                        e -> log.error("bid_archives index 생성 실패: {}", e.getMessage()));
+    }
+}
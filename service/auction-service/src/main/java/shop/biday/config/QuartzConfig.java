@@ -1,6 +1,8 @@
 package shop.biday.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,7 +11,18 @@ import org.springframework.transaction.PlatformTransactionManager;
 import shop.biday.scheduler.QuartzJobListener;
 
 import javax.sql.DataSource;
+import java.util.Properties;
 
+/**
+ * JDBC JobStore 를 쓰는 Quartz 설정.
+ * auction.quartz.clustered=true 이면 같은 QRTZ_ 테이블을 쓰는 인스턴스끼리 클러스터가 되어 Trigger 는 한 노드에서만 실행되고,
+ * 여러 노드가 batch 로 Trigger 를 나누어 가져간다. 체크인이 cluster-checkin-ms 의 몇 배 동안 끊긴 노드의 Trigger 와
+ * 실행 중이던 Job(requestsRecovery) 은 살아 있는 노드가 넘겨받는다.
+ * instanceId 는 AUTO 로 두면 노드마다 다르게 만들어지므로 한 JVM 에 여러 인스턴스를 띄워도 된다.
+ * auction.close.scheduler=wheel 이면 Scheduler 는 만들되 시작하지 않는다. 저장된 Trigger 가 TimingWheel 과 함께 경매를 종료하지 않게 하고,
+ * 다시 quartz 로 바꾸면 남은 Trigger 가 실행되며 이미 종료된 경매는 AuctionClosePipeline 이 건너뛴다.
+ */
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class QuartzConfig {
@@ -19,6 +32,24 @@ public class QuartzConfig {
     private final PlatformTransactionManager transactionManager;
     private final QuartzJobListener quartzJobListener;
 
+    @Value("${auction.quartz.clustered:false}")
+    private boolean clustered;
+
+    @Value("${auction.quartz.instance-id:AUTO}")
+    private String instanceId;
+
+    @Value("${auction.quartz.cluster-checkin-ms:5000}")
+    private long clusterCheckinMillis;
+
+    @Value("${auction.quartz.threads:10}")
+    private int threads;
+
+    @Value("${auction.quartz.batch-acquire:10}")
+    private int batchAcquire;
+
+    @Value("${auction.close.scheduler:quartz}")
+    private String closeScheduler;
+
     @Bean
     public SchedulerFactoryBean schedulerFactoryBean() {
         SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
@@ -29,9 +60,25 @@ public class QuartzConfig {
 
         schedulerFactoryBean.setGlobalJobListeners(quartzJobListener);
         schedulerFactoryBean.setOverwriteExistingJobs(true);
-        schedulerFactoryBean.setAutoStartup(true);
+        schedulerFactoryBean.setAutoStartup("quartz".equals(closeScheduler));
         schedulerFactoryBean.setDataSource(dataSource);
         schedulerFactoryBean.setTransactionManager(transactionManager);
+        schedulerFactoryBean.setSchedulerName("AuctionScheduler");
+        schedulerFactoryBean.setQuartzProperties(quartzProperties());
         return schedulerFactoryBean;
     }
+
+    private Properties quartzProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("org.quartz.scheduler.instanceId", instanceId);
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threads));
+        // 한 번에 여러 Trigger 를 가져와 노드당 처리량을 늘리고, 클러스터에서는 잠금 안에서 가져와 중복 실행을 막는다.
+        properties.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", String.valueOf(batchAcquire));
+        properties.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", String.valueOf(clustered || batchAcquire > 1));
+        properties.setProperty("org.quartz.jobStore.isClustered", String.valueOf(clustered));
+        properties.setProperty("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(clusterCheckinMillis));
+        log.info("Quartz clustered: {}, instanceId: {}, threads: {}, batchAcquire: {}, closeScheduler: {}",
+                clustered, instanceId, threads, batchAcquire, closeScheduler);
+        return properties;
+    }
 }
@@ -0,0 +1,69 @@
+package shop.biday.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * 경매/낙찰 단건 조회용 R2DBC 연결. (auction.r2dbc.enabled=true)
+ * 쓰기와 목록 조회는 JPA 를 그대로 쓰므로 Spring Boot 의 R2DBC 자동 설정은 끄고 여기서만 만든다.
+ * 드라이버 연결을 요청마다 새로 맺지 않도록 ConnectionPool 로 감싸고, 크기는 auction.r2dbc.pool.* 로 정한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auction.r2dbc.enabled", havingValue = "true")
+public class R2dbcConfig {
+
+    @Value("${auction.r2dbc.url}")
+    private String url;
+
+    @Value("${auction.r2dbc.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${auction.r2dbc.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${auction.r2dbc.pool.initial-size:4}")
+    private int initialSize;
+
+    @Value("${auction.r2dbc.pool.max-size:16}")
+    private int maxSize;
+
+    @Value("${auction.r2dbc.pool.max-idle-ms:1800000}")
+    private long maxIdleMillis;
+
+    @Value("${auction.r2dbc.pool.max-acquire-ms:3000}")
+    private long maxAcquireMillis;
+
+    @Value("${auction.r2dbc.pool.validation-query:SELECT 1}")
+    private String validationQuery;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool r2dbcConnectionFactory() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("auction-r2dbc")
+                .initialSize(Math.min(initialSize, maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMillis(maxIdleMillis))
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMillis))
+                .validationQuery(validationQuery)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory r2dbcConnectionFactory) {
+        return DatabaseClient.create(r2dbcConnectionFactory);
+    }
+}
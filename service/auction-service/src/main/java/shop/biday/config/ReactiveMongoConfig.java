@@ -1,11 +1,14 @@
 package shop.biday.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 import shop.biday.utils.BigIntegerToDecimal128Converter;
+import shop.biday.utils.BigIntegerToLongConverter;
 import shop.biday.utils.Decimal128ToBigIntegerConverter;
+import shop.biday.utils.LongToBigIntegerConverter;
 
 import java.util.Arrays;
 
@@ -13,6 +16,10 @@ import java.util.Arrays;
 @EnableReactiveMongoRepositories(basePackages = "shop.biday.model.repository")
 public class ReactiveMongoConfig extends AbstractMongoClientConfiguration {
 
+    // true 이면 입찰 금액을 int64 로 저장한다. 읽을 때는 Decimal128, int64 를 모두 받는다.
+    @Value("${auction.bid.storage.int64:false}")
+    private boolean int64Storage;
+
     @Override
     protected String getDatabaseName() {
         return "bidaydb";
@@ -21,8 +28,9 @@ public class ReactiveMongoConfig extends AbstractMongoClientConfiguration {
     @Override
     public MongoCustomConversions customConversions() {
         return new MongoCustomConversions(Arrays.asList(
-                new BigIntegerToDecimal128Converter(),
-                new Decimal128ToBigIntegerConverter()
+                int64Storage ? new BigIntegerToLongConverter() : new BigIntegerToDecimal128Converter(),
+                new Decimal128ToBigIntegerConverter(),
+                new LongToBigIntegerConverter()
         ));
     }
 }
@@ -0,0 +1,38 @@
+package shop.biday.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import shop.biday.model.dto.BidResponse;
+
+/**
+ * 연결은 Spring Boot 의 spring.data.redis.* 자동 설정(LettuceConnectionFactory)을 그대로 쓰고,
+ * 여기서는 입찰 응답용 템플릿과 fanout 구독 컨테이너만 만든다.
+ * Redis 를 쓰는 기능은 모두 기본으로 꺼져 있고, auction.redis.enabled=true 이면 fanout, 분산 rate limit,
+ * 메타데이터 캐시 무효화 전파, 경매 종료 샤딩과 Redis health indicator 를 함께 켠다. 기능마다 따로 켜고 끌 수도 있다.
+ */
+@Configuration
+public class RedisConfig {
+    @Bean
+    public ReactiveRedisTemplate<String, BidResponse> bidRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                      ObjectMapper objectMapper) {
+        RedisSerializationContext<String, BidResponse> serializationContext = RedisSerializationContext
+                .<String, BidResponse>newSerializationContext(new StringRedisSerializer())
+                .value(new Jackson2JsonRedisSerializer<>(objectMapper, BidResponse.class))
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    @Bean
+    @ConditionalOnExpression("${auction.bid.fanout.redis:${auction.redis.enabled:false}}")
+    public ReactiveRedisMessageListenerContainer redisMessageListenerContainer(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
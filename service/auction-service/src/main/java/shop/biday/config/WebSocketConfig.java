@@ -0,0 +1,18 @@
+package shop.biday.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import shop.biday.controller.BidWebSocketHandler;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping bidWebSocketHandlerMapping(BidWebSocketHandler bidWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/api/bids/ws", bidWebSocketHandler), -1);
+    }
+}
@@ -13,10 +13,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import shop.biday.model.domain.AuctionModel;
 import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.entity.AuctionCloseDeadLetterEntity;
 import shop.biday.model.entity.AuctionEntity;
+import shop.biday.service.AuctionCloseDeadLetterService;
 import shop.biday.service.AuctionService;
+import shop.biday.utils.JdbcExecutor;
 
 import java.util.List;
 
@@ -26,6 +30,8 @@ import java.util.List;
 @Tag(name = "auctions", description = "Auction Controller")
 public class AuctionController {
     private final AuctionService auctionService;
+    private final AuctionCloseDeadLetterService deadLetterService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping("/findById")
     @Operation(summary = "경매 상세보기", description = "경매 상세보기, 여기서는 경매와 해당 상품에 관한 정보만 가져옴")
@@ -36,8 +42,8 @@ public class AuctionController {
             @ApiResponse(responseCode = "500", description = "서버 오류")
     })
     @Parameter(name = "id", description = "상세보기할 경매의 id", example = "1")
-    public ResponseEntity<AuctionModel> findById(@RequestParam(value = "id", required = true) Long id) {
-        return auctionService.findById(id);
+    public Mono<ResponseEntity<AuctionModel>> findById(@RequestParam(value = "id", required = true) Long id) {
+        return jdbcExecutor.call(() -> auctionService.findById(id));
     }
 
     @GetMapping("/findBySize")
@@ -55,14 +61,14 @@ public class AuctionController {
             @Parameter(name = "page", description = "페이지 번호", example = "1"),
             @Parameter(name = "size", description = "한 페이지에서 보여질 경매의 개수", example = "20"),
     })
-    public ResponseEntity<Slice<AuctionDto>> findBySize(
+    public Mono<ResponseEntity<Slice<AuctionDto>>> findBySize(
             @RequestParam(value = "sizeId", required = false) Long sizeId,
             @RequestParam(value = "order", required = false, defaultValue = "") String order,
             @RequestParam(value = "cursor", required = false) Long cursor,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return auctionService.findBySize(sizeId, order, cursor, pageable);
+        return jdbcExecutor.call(() -> auctionService.findBySize(sizeId, order, cursor, pageable));
     }
 
     @GetMapping("/findAllBySize")
@@ -77,10 +83,10 @@ public class AuctionController {
             @Parameter(name = "sizeId", description = "경매에 등록된 상품의 사이즈 id", example = "1"),
             @Parameter(name = "order", description = "정렬할 시간 기준", example = "종료 임박 순"),
     })
-    public ResponseEntity<List<AuctionDto>> findAllBySize(
+    public Mono<ResponseEntity<List<AuctionDto>>> findAllBySize(
             @RequestParam(value = "sizeId", required = true) Long sizeId,
             @RequestParam(value = "order", required = false, defaultValue = "") String order) {
-        return auctionService.findAllBySize(sizeId, order);
+        return jdbcExecutor.call(() -> auctionService.findAllBySize(sizeId, order));
     }
 
     @GetMapping
@@ -99,14 +105,14 @@ public class AuctionController {
             @Parameter(name = "page", description = "페이지 번호", example = "1"),
             @Parameter(name = "size", description = "한 페이지에서 보여질 경매의 개수", example = "20"),
     })
-    public ResponseEntity<Slice<AuctionDto>> findByUser(
+    public Mono<ResponseEntity<Slice<AuctionDto>>> findByUser(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestParam(value = "period", required = false, defaultValue = "3개월") String period,
             @RequestParam(value = "cursor", required = false) Long cursor,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "5") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return auctionService.findByUser(userInfoHeader, period, cursor, pageable);
+        return jdbcExecutor.call(() -> auctionService.findByUser(userInfoHeader, period, cursor, pageable));
     }
 
     @PostMapping
@@ -132,10 +138,10 @@ public class AuctionController {
                         } 
                     """)})
     })
-    public ResponseEntity<AuctionEntity> save(
+    public Mono<ResponseEntity<AuctionEntity>> save(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestBody AuctionDto auctionModel) {
-        return auctionService.save(userInfoHeader, auctionModel);
+        return jdbcExecutor.call(() -> auctionService.save(userInfoHeader, auctionModel));
     }
 
     @PatchMapping
@@ -163,10 +169,10 @@ public class AuctionController {
                         } 
                     """)})
     })
-    public ResponseEntity<AuctionEntity> update(
+    public Mono<ResponseEntity<AuctionEntity>> update(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestBody AuctionDto auctionModel) {
-        return auctionService.update(userInfoHeader, auctionModel);
+        return jdbcExecutor.call(() -> auctionService.update(userInfoHeader, auctionModel));
     }
 
     @DeleteMapping
@@ -183,9 +189,50 @@ public class AuctionController {
             @Parameter(name = "userId", description = "현재 로그인한 사용자 token에서 추출한 userId", example = "66f1442a7415bc47b04b3477"),
             @Parameter(name = "brandId", description = "브랜드 id", example = "1")
     })
-    public ResponseEntity<String> delete(
+    public Mono<ResponseEntity<String>> delete(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestParam Long id) {
-        return auctionService.deleteById(userInfoHeader, id);
+        return jdbcExecutor.call(() -> auctionService.deleteById(userInfoHeader, id));
+    }
+
+    @GetMapping("/dead-letters")
+    @Operation(summary = "종료 실패 경매 목록", description = "재시도 후에도 종료 처리에 실패한 경매 목록, 관리자만 조회 가능")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "목록 가져오기 성공"),
+            @ApiResponse(responseCode = "403", description = "권한 없음"),
+            @ApiResponse(responseCode = "500", description = "서버 오류")
+    })
+    @Parameters({
+            @Parameter(name = "UserInfo", description = "현재 로그인한 사용자 ",
+                    example = "UserInfo{'id': 'abc342', 'name': 'kim', role: 'ROLE_ADMIN'}"),
+            @Parameter(name = "page", description = "페이지 번호", example = "0"),
+            @Parameter(name = "size", description = "한 페이지에서 보여질 경매의 개수", example = "20"),
+    })
+    public Mono<ResponseEntity<Slice<AuctionCloseDeadLetterEntity>>> findDeadLetters(
+            @RequestHeader("UserInfo") String userInfoHeader,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return jdbcExecutor.call(() -> deadLetterService.findAll(userInfoHeader, pageable));
+    }
+
+    @PostMapping("/dead-letters/redrive")
+    @Operation(summary = "종료 실패 경매 재처리", description = "auctionIds 의 경매를 다시 종료 처리, 비어 있으면 오래된 순으로 limit 개를 재처리")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "재처리 요청 성공, 대기열에 넣은 경매 수 반환"),
+            @ApiResponse(responseCode = "403", description = "권한 없음"),
+            @ApiResponse(responseCode = "500", description = "서버 오류")
+    })
+    @Parameters({
+            @Parameter(name = "UserInfo", description = "현재 로그인한 사용자 ",
+                    example = "UserInfo{'id': 'abc342', 'name': 'kim', role: 'ROLE_ADMIN'}"),
+            @Parameter(name = "auctionIds", description = "재처리할 경매 id 목록", example = "1,2,3"),
+            @Parameter(name = "limit", description = "auctionIds 가 없을 때 재처리할 최대 경매 수", example = "100"),
+    })
+    public Mono<ResponseEntity<Integer>> redriveDeadLetters(
+            @RequestHeader("UserInfo") String userInfoHeader,
+            @RequestParam(value = "auctionIds", required = false) List<Long> auctionIds,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return jdbcExecutor.call(() -> deadLetterService.redrive(userInfoHeader, auctionIds, limit));
     }
 }
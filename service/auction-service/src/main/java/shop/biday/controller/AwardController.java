@@ -12,8 +12,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import shop.biday.model.domain.AwardModel;
 import shop.biday.service.AwardService;
+import shop.biday.utils.JdbcExecutor;
 
 import java.time.LocalDateTime;
 
@@ -23,6 +25,7 @@ import java.time.LocalDateTime;
 @Tag(name = "awards", description = "Award Controller")
 public class AwardController {
     private final AwardService awardService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping
     @Operation(summary = "낙찰 목록", description = "마이 페이지에서 불러올 수 있는 낙찰 목록")
@@ -39,14 +42,14 @@ public class AwardController {
             @Parameter(name = "page", description = "페이지 번호", example = "1"),
             @Parameter(name = "size", description = "한 페이지에서 보여질 경매의 개수", example = "20"),
     })
-    public ResponseEntity<Slice<AwardModel>> findByUser(
+    public Mono<ResponseEntity<Slice<AwardModel>>> findByUser(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestParam(value = "period", required = false, defaultValue = "3개월") String period,
             @RequestParam(value = "cursor", required = false) LocalDateTime cursor,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "5") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return awardService.findByUser(userInfoHeader, period, cursor, pageable);
+        return jdbcExecutor.call(() -> awardService.findByUser(userInfoHeader, period, cursor, pageable));
     }
 
     @GetMapping("/findById")
@@ -61,7 +64,7 @@ public class AwardController {
                     example = "UserInfo{'id': 'abc342', 'name': 'kim', role: 'ROLE_USER'}"),
             @Parameter(name = "awardId", description = "상세보기할 낙찰의 id", example = "1")
     })
-    public ResponseEntity<AwardModel> findById(
+    public Mono<ResponseEntity<AwardModel>> findById(
             @RequestHeader("UserInfo") String userInfoHeader,
             @RequestParam(value = "awardId", required = true) Long awardId) {
         return awardService.findByAwardId(userInfoHeader, awardId);
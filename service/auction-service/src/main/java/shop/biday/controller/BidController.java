@@ -8,22 +8,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
+import shop.biday.cache.BidSnapshotCache;
+import shop.biday.exception.BidException;
 import shop.biday.model.domain.BidModel;
+import shop.biday.model.dto.BidHistoryResponse;
 import shop.biday.model.dto.BidResponse;
-import shop.biday.service.AuctionService;
+import shop.biday.service.BidFanoutService;
 import shop.biday.service.BidService;
+import shop.biday.service.SseConnectionRegistry;
 
 import java.io.IOException;
-import java.math.BigInteger;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 @Slf4j
@@ -33,67 +39,53 @@ import java.util.concurrent.TimeoutException;
 @Tag(name = "bids", description = "Bid Controller")
 public class BidController {
 
-    private final Map<Long, Sinks.Many<BidResponse>> bidSinks = new ConcurrentHashMap<>();
-
     private final BidService bidService;
-    private final AuctionService auctionService;
+    private final BidFanoutService bidFanoutService;
+    private final BidSnapshotCache bidSnapshotCache;
+    private final SseConnectionRegistry sseConnectionRegistry;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    @Value("${auction.bid.stream.mode:buffer}")
+    private String defaultStreamMode;
+
+    @Value("${auction.bid.stream.max-events-per-second:4}")
+    private int maxEventsPerSecond;
+
+    @Value("${auction.bid.stream.heartbeat-ms:15000}")
+    private long heartbeatMillis;
 
     @Operation(summary = "입찰 조회", description = "auctionId로 최고 입찰가를 조회합니다.(SSE)")
     @Parameters({
             @Parameter(name = "auctionId", description = "경매 ID", example = "1"),
+            @Parameter(name = "mode", description = "buffer: 모든 입찰 전달, latest: 초당 최대 전송 수 안에서 최신 입찰만 전달", example = "latest"),
     })
     @ApiResponse(responseCode = "200", description = "성공")
+    @ApiResponse(responseCode = "503", description = "연결 수 초과")
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<BidResponse> streamBid(@RequestParam Long auctionId) {
-        log.info("stream auctionId: {}", auctionId);
-        Sinks.Many<BidResponse> bidSink = bidSinks.computeIfAbsent(auctionId, id ->
-                Sinks.many().multicast().onBackpressureBuffer());
-
-        Mono<BidResponse> findBid = bidService.findTopBidByAuctionId(auctionId)
-                .flatMap(bid -> bidService.countByAuctionId(auctionId)
-                        .map(count -> BidResponse.builder()
-                                .auctionId(bid.getAuctionId())
-                                .currentBid(bid.getCurrentBid())
-                                .award(bid.isAward())
-                                .count(count)
-                                .bidedAt(bid.getBidedAt())
-                                .build())
-                )
-                .switchIfEmpty(
-                        Mono.defer(() -> auctionService.findByAuctionId(auctionId)
-                                .map(auction -> BidResponse.builder()
-                                        .auctionId(auction.getId())
-                                        .currentBid(BigInteger.valueOf(auction.getCurrentBid()))
-                                        .award(false)
-                                        .count(0L)
-                                        .bidedAt(auction.getStartedAt())
-                                        .build())
-                        )
-                );
-
-        return findBid.doOnNext(bidSink::tryEmitNext)
-                .thenMany(bidSink.asFlux())
-                .onErrorResume(IOException.class, e -> {
-                    log.warn("IOException 발생 클라이언트 연결 끊김, auctionId: {}", auctionId);
-                    if (bidSink.currentSubscriberCount() == 1) {
-                        bidSinks.remove(auctionId);
+    public Flux<ServerSentEvent<BidResponse>> streamBid(@RequestParam Long auctionId,
+                                                        @RequestParam(value = "mode", required = false) String mode) {
+        log.info("stream auctionId: {}, mode: {}", auctionId, mode);
+        return Flux.defer(() -> {
+                    if (!sseConnectionRegistry.tryOpen(auctionId)) {
+                        return Flux.error(new BidException(HttpStatus.SERVICE_UNAVAILABLE, "TOO_MANY_CONNECTIONS",
+                                "입찰 스트림 연결이 많습니다. 잠시 후 다시 시도해주세요."));
                     }
-                    return Flux.empty();
+                    Flux<BidResponse> bids = liveBids(auctionId, mode)
+                            .timeout(Duration.ofMinutes(10))
+                            .onErrorResume(TimeoutException.class, e -> {
+                                log.warn("SSE 연결이 타임아웃되었습니다. auctionId: {}", auctionId);
+                                return Flux.empty();
+                            });
+                    return withHeartbeat(bids)
+                            .onErrorResume(IOException.class, e -> {
+                                log.warn("IOException 발생 클라이언트 연결 끊김, auctionId: {}", auctionId);
+                                return Flux.empty();
+                            })
+                            .doFinally(signal -> sseConnectionRegistry.close(auctionId));
                 })
-                .timeout(Duration.ofMinutes(10))
-                .onErrorResume(TimeoutException.class, e -> {
-                    log.warn("SSE 연결이 타임아웃되었습니다. auctionId: {}", auctionId);
-                    if (bidSink.currentSubscriberCount() == 1) {
-                        bidSinks.remove(auctionId);
-                    }
-                    return Flux.empty();
-                })
-                .doOnCancel(() -> {
-                    log.warn("클라이언트가 연결을 끊었습니다. auctionId: {}", auctionId);
-                    if (bidSink.currentSubscriberCount() == 1) {
-                        bidSinks.remove(auctionId);
-                    }
-                }).log();
+                .doOnCancel(() -> log.warn("클라이언트가 연결을 끊었습니다. auctionId: {}", auctionId))
+                .log();
     }
 
     @Operation(summary = "입찰 저장", description = "입찰 데이터를 저장합니다.")
@@ -114,21 +106,67 @@ public class BidController {
                                   @RequestBody @Validated BidModel bidModel) {
         log.info("save bidModel: {}, userInfo: {}", bidModel, userInfo);
         return bidService.save(userInfo, bidModel)
-                .doOnNext(bid -> {
-                    Sinks.Many<BidResponse> bidSink = bidSinks.get(bid.getAuctionId());
-                    if (bidSink != null) {
-                        bidSink.tryEmitNext(bid);
-                    }
-                });
+                .doOnNext(bidFanoutService::publish);
     }
 
-    public boolean sinkClose(Long auctionId) {
-        if (bidSinks.containsKey(auctionId)) {
-            Sinks.Many<BidResponse> bidSink = bidSinks.get(auctionId);
-            bidSink.tryEmitComplete();
-            bidSinks.remove(auctionId);
-            return true;
+    @Operation(summary = "입찰 기록 조회", description = "경매의 입찰 기록을 높은 금액 순으로 커서 페이지 단위로 조회합니다.")
+    @Parameters({
+            @Parameter(name = "auctionId", description = "경매 ID", example = "1"),
+            @Parameter(name = "cursor", description = "현재 페이지에서 가장 마지막 입찰의 id"),
+            @Parameter(name = "size", description = "한 페이지에서 보여질 입찰의 개수", example = "20"),
+    })
+    @ApiResponse(responseCode = "200", description = "성공")
+    @GetMapping("/history")
+    public Mono<Slice<BidHistoryResponse>> findHistory(@RequestParam Long auctionId,
+                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("history auctionId: {}, cursor: {}, size: {}", auctionId, cursor, size);
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE));
+        return bidService.findHistory(auctionId, cursor, pageable);
+    }
+
+    @Operation(summary = "입찰 기록 스트림", description = "경매의 입찰 기록을 높은 금액 순으로 끝까지 NDJSON 으로 내려줍니다. 클라이언트가 읽는 만큼만 DB 에서 가져옵니다.")
+    @Parameters({
+            @Parameter(name = "auctionId", description = "경매 ID", example = "1"),
+            @Parameter(name = "cursor", description = "이 입찰 다음부터 내려받을 입찰의 id"),
+    })
+    @ApiResponse(responseCode = "200", description = "성공")
+    @GetMapping(value = "/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BidHistoryResponse> streamHistory(@RequestParam Long auctionId,
+                                                  @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("history stream auctionId: {}, cursor: {}", auctionId, cursor);
+        return bidService.streamHistory(auctionId, cursor)
+                .doOnCancel(() -> log.warn("클라이언트가 입찰 기록 스트림을 끊었습니다. auctionId: {}", auctionId));
+    }
+
+    /**
+     * latest 모드에서는 구독자마다 tick 당 최신 입찰 하나만 보내고 중간 값은 버린다.
+     * 느린 클라이언트가 있어도 sink 에 입찰이 쌓이지 않는다.
+     */
+    private Flux<BidResponse> liveBids(Long auctionId, String mode) {
+        Flux<BidResponse> bids = bidFanoutService.listen(auctionId, bidSnapshotCache.get(auctionId));
+        if (!"latest".equalsIgnoreCase(mode != null ? mode : defaultStreamMode)) {
+            return bids;
         }
-        return false;
+        Duration tick = Duration.ofMillis(1000L / Math.max(1, maxEventsPerSecond));
+        return bids.sample(tick)
+                .onBackpressureLatest();
+    }
+
+    /**
+     * 입찰이 없는 동안에도 heartbeat 주석을 보내 끊긴 연결이 쓰기 실패로 드러나게 한다.
+     * timeout 은 입찰에만 걸려 있으므로 heartbeat 가 연결을 계속 살려 두지는 않는다.
+     */
+    private Flux<ServerSentEvent<BidResponse>> withHeartbeat(Flux<BidResponse> bids) {
+        return bids.publish(shared -> shared
+                .map(bid -> ServerSentEvent.builder(bid).build())
+                .mergeWith(Flux.interval(Duration.ofMillis(heartbeatMillis))
+                        .onBackpressureDrop()
+                        .map(tick -> ServerSentEvent.<BidResponse>builder().comment("heartbeat").build())
+                        .takeUntilOther(shared.then())));
+    }
+
+    public boolean sinkClose(Long auctionId) {
+        return bidFanoutService.close(auctionId);
     }
 }
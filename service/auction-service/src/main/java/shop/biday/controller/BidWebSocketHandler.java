@@ -0,0 +1,220 @@
+package shop.biday.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import shop.biday.cache.BidSnapshotCache;
+import shop.biday.exception.BidException;
+import shop.biday.model.domain.BidModel;
+import shop.biday.model.domain.UserInfoModel;
+import shop.biday.model.dto.BidSocketEvent;
+import shop.biday.model.dto.BidSocketMessage;
+import shop.biday.service.BidFanoutService;
+import shop.biday.service.BidService;
+import shop.biday.service.SseConnectionRegistry;
+import shop.biday.utils.UserInfoUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 한 연결에서 경매 구독과 입찰을 함께 처리하는 WebSocket. (/api/bids/ws)
+ * UserInfo 헤더는 연결할 때 한 번만 읽고, 입찰은 BidService 로 저장한 뒤 POST /api/bids 와 같이 발행한다.
+ * 구독한 경매의 입찰(UPDATE)과 내 입찰의 결과(ACK/ERROR)는 같은 연결로 내려간다.
+ * 보낼 메시지가 outbound-buffer 를 넘으면 ACK/ERROR 를 잃지 않도록 버리지 않고 연결을 닫으며, 클라이언트는 다시 연결해 스냅샷부터 받는다.
+ * 한 연결이 구독할 수 있는 경매는 max-subscriptions 개까지다.
+ */
+@Slf4j
+@Component
+public class BidWebSocketHandler implements WebSocketHandler {
+
+    private final BidService bidService;
+    private final BidFanoutService bidFanoutService;
+    private final BidSnapshotCache bidSnapshotCache;
+    private final SseConnectionRegistry connectionRegistry;
+    private final UserInfoUtils userInfoUtils;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int outboundBuffer;
+    private final int maxSubscriptions;
+
+    public BidWebSocketHandler(BidService bidService,
+                               BidFanoutService bidFanoutService,
+                               BidSnapshotCache bidSnapshotCache,
+                               SseConnectionRegistry connectionRegistry,
+                               UserInfoUtils userInfoUtils,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${auction.bid.socket.outbound-buffer:256}") int outboundBuffer,
+                               @Value("${auction.bid.socket.max-subscriptions:20}") int maxSubscriptions) {
+        this.bidService = bidService;
+        this.bidFanoutService = bidFanoutService;
+        this.bidSnapshotCache = bidSnapshotCache;
+        this.connectionRegistry = connectionRegistry;
+        this.userInfoUtils = userInfoUtils;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.outboundBuffer = outboundBuffer;
+        this.maxSubscriptions = maxSubscriptions;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        UserInfoModel user;
+        try {
+            user = userInfoUtils.extractUserInfo(session.getHandshakeInfo().getHeaders().getFirst("UserInfo"));
+        } catch (RuntimeException e) {
+            log.warn("WebSocket UserInfo 오류 sessionId: {}, {}", session.getId(), e.getMessage());
+            return session.close(CloseStatus.POLICY_VIOLATION);
+        }
+        return new Connection(session, user).run();
+    }
+
+    private class Connection {
+
+        private final WebSocketSession session;
+        private final UserInfoModel user;
+        private final Sinks.Many<String> outbound = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<String>get(outboundBuffer).get());
+        private final Map<Long, Disposable> subscriptions = new ConcurrentHashMap<>();
+        private boolean overflowed = false;
+
+        Connection(WebSocketSession session, UserInfoModel user) {
+            this.session = session;
+            this.user = user;
+        }
+
+        Mono<Void> run() {
+            log.info("WebSocket 연결 sessionId: {}, userId: {}", session.getId(), user.getUserId());
+            Mono<Void> input = session.receive()
+                    .map(WebSocketMessage::getPayloadAsText)
+                    .concatMap(this::handle)
+                    .doFinally(signal -> outbound.tryEmitComplete())
+                    .then();
+            Mono<Void> output = session.send(outbound.asFlux().map(session::textMessage));
+
+            return Mono.when(input, output)
+                    .doFinally(signal -> {
+                        subscriptions.values().forEach(Disposable::dispose);
+                        log.info("WebSocket 종료 sessionId: {}, signal: {}", session.getId(), signal);
+                    });
+        }
+
+        private Mono<Void> handle(String payload) {
+            BidSocketMessage message;
+            try {
+                message = objectMapper.readValue(payload, BidSocketMessage.class);
+            } catch (JsonProcessingException e) {
+                emit(BidSocketEvent.error(null, null, "INVALID_MESSAGE", "메시지 형식이 올바르지 않습니다."));
+                return Mono.empty();
+            }
+            if (message.type() == null || message.auctionId() == null) {
+                emit(BidSocketEvent.error(message.requestId(), message.auctionId(), "INVALID_MESSAGE", "type 과 auctionId 는 필수 값입니다."));
+                return Mono.empty();
+            }
+
+            return switch (message.type()) {
+                case SUBSCRIBE -> subscribe(message.auctionId());
+                case UNSUBSCRIBE -> unsubscribe(message.auctionId());
+                case BID -> bid(message);
+            };
+        }
+
+        private Mono<Void> subscribe(Long auctionId) {
+            Disposable existing = subscriptions.get(auctionId);
+            if (existing != null && !existing.isDisposed()) {
+                return Mono.empty();
+            }
+            // 종료된 경매의 구독은 세지 않는다.
+            subscriptions.values().removeIf(Disposable::isDisposed);
+            if (subscriptions.size() >= maxSubscriptions) {
+                emit(BidSocketEvent.error(null, auctionId, "TOO_MANY_SUBSCRIPTIONS",
+                        "한 연결에서 구독할 수 있는 경매는 " + maxSubscriptions + "개까지입니다."));
+                return Mono.empty();
+            }
+            if (!connectionRegistry.tryOpen(auctionId)) {
+                emit(BidSocketEvent.error(null, auctionId, "TOO_MANY_CONNECTIONS", "입찰 스트림 연결이 많습니다. 잠시 후 다시 시도해주세요."));
+                return Mono.empty();
+            }
+
+            Disposable subscription = bidFanoutService.listen(auctionId, bidSnapshotCache.get(auctionId))
+                    .doFinally(signal -> connectionRegistry.close(auctionId))
+                    .subscribe(bid -> emit(BidSocketEvent.update(bid)),
+                            e -> log.warn("WebSocket 구독 오류 sessionId: {}, auctionId: {}, {}", session.getId(), auctionId, e.getMessage()),
+                            () -> emit(BidSocketEvent.closed(auctionId)));
+            subscriptions.put(auctionId, subscription);
+            return Mono.empty();
+        }
+
+        private Mono<Void> unsubscribe(Long auctionId) {
+            Disposable subscription = subscriptions.remove(auctionId);
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            return Mono.empty();
+        }
+
+        private Mono<Void> bid(BidSocketMessage message) {
+            BidModel bidModel = new BidModel(message.auctionId(), message.currentBid());
+            Set<ConstraintViolation<BidModel>> violations = validator.validate(bidModel);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<BidModel> violation = violations.iterator().next();
+                emit(BidSocketEvent.error(message.requestId(), message.auctionId(), "INVALID_BID",
+                        violation.getPropertyPath() + ": " + violation.getMessage()));
+                return Mono.empty();
+            }
+
+            return bidService.save(user, bidModel)
+                    .doOnNext(bidFanoutService::publish)
+                    .doOnNext(bid -> emit(BidSocketEvent.ack(message.requestId(), bid)))
+                    .onErrorResume(BidException.class, e -> {
+                        emit(BidSocketEvent.error(message.requestId(), message.auctionId(), e.getCode(), e.getMessage()));
+                        return Mono.empty();
+                    })
+                    .onErrorResume(e -> {
+                        log.error("WebSocket 입찰 실패 auctionId: {}, {}", message.auctionId(), e.getMessage());
+                        emit(BidSocketEvent.error(message.requestId(), message.auctionId(), "BID_FAILED", "입찰을 처리하지 못했습니다."));
+                        return Mono.empty();
+                    })
+                    .then();
+        }
+
+        // 구독 스트림과 입찰 응답이 서로 다른 스레드에서 보내므로 unicast sink 로 보내는 것은 직렬화한다.
+        private synchronized void emit(BidSocketEvent event) {
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                log.error("WebSocket 메시지 변환 실패 type: {}, {}", event.type(), e.getMessage());
+                return;
+            }
+            if (overflowed) {
+                return;
+            }
+            Sinks.EmitResult result = outbound.tryEmitNext(payload);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // 클라이언트가 읽지 못하는 동안 쌓인 것이므로 메시지를 버리는 대신 연결을 닫는다.
+                overflowed = true;
+                log.warn("WebSocket 전송 대기열 초과로 연결을 닫습니다. sessionId: {}, type: {}", session.getId(), event.type());
+                subscriptions.values().forEach(Disposable::dispose);
+                session.close(CloseStatus.POLICY_VIOLATION.withReason("outbound buffer overflow"))
+                        .subscribe(null, e -> log.warn("WebSocket 종료 실패 sessionId: {}, {}", session.getId(), e.getMessage()));
+            } else if (result.isFailure()) {
+                log.warn("WebSocket 메시지 전송 실패 sessionId: {}, type: {}, result: {}", session.getId(), event.type(), result);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package shop.biday.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidException extends RuntimeException {
+
+    private HttpStatus status;
+    private String code;
+    private String message;
+}
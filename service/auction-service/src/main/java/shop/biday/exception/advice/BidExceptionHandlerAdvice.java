@@ -0,0 +1,21 @@
+package shop.biday.exception.advice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import shop.biday.exception.BidException;
+import shop.biday.exception.model.ErrorResponse;
+
+@Slf4j
+@ControllerAdvice
+public class BidExceptionHandlerAdvice {
+
+    @ExceptionHandler(BidException.class)
+    public ResponseEntity<?> handleBidException(BidException e) {
+        log.warn("[handleBidException] code: {}, message: {}", e.getCode(), e.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse(e.getStatus(), e.getCode(), e.getMessage()),
+                e.getStatus());
+    }
+}
@@ -0,0 +1,16 @@
+package shop.biday.exception.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+
+    private HttpStatus status;
+    private String code;
+    private String message;
+}
@@ -0,0 +1,60 @@
+package shop.biday.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import shop.biday.model.dto.BidQueryPlan;
+import shop.biday.model.repository.BidRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * bids 조회의 실행 계획을 확인해 COLLSCAN 이 있으면 WARN 으로 보고한다.
+ * explain 은 비용이 있으므로 결과를 일정 시간 재사용한다.
+ */
+@Slf4j
+@Component("bidQueryPlan")
+public class BidQueryPlanHealthIndicator implements ReactiveHealthIndicator {
+
+    private static final String WARN = "WARN";
+
+    private final Mono<Health> health;
+
+    public BidQueryPlanHealthIndicator(BidRepository bidRepository,
+                                       @Value("${auction.bid.query-plan.check-interval-ms:300000}") long checkIntervalMillis) {
+        this.health = bidRepository.explainQueries()
+                .collectList()
+                .map(this::toHealth)
+                .onErrorResume(e -> Mono.just(Health.unknown().withException(e).build()))
+                .cache(Duration.ofMillis(checkIntervalMillis));
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return health;
+    }
+
+    private Health toHealth(List<BidQueryPlan> plans) {
+        Map<String, String> stages = plans.stream()
+                .collect(Collectors.toMap(BidQueryPlan::getQuery, BidQueryPlan::getStages));
+        List<String> collectionScans = plans.stream()
+                .filter(BidQueryPlan::isCollectionScan)
+                .map(BidQueryPlan::getQuery)
+                .toList();
+
+        if (collectionScans.isEmpty()) {
+            return Health.up().withDetail("plans", stages).build();
+        }
+        log.warn("bids 조회에서 COLLSCAN 발견: {}", collectionScans);
+        return Health.status(WARN)
+                .withDetail("collectionScans", collectionScans)
+                .withDetail("plans", stages)
+                .build();
+    }
+}
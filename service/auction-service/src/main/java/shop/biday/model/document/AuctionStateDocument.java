@@ -0,0 +1,66 @@
+package shop.biday.model.document;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.mapping.Field.Write;
+
+@Getter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "auction_states")
+public class AuctionStateDocument {
+
+    @Id
+    private Long auctionId;
+
+    @Field(write = Write.ALWAYS)
+    private String userId;
+
+    // 저장 형식은 ReactiveMongoConfig 의 변환기가 정한다. (Decimal128 또는 int64)
+    @Field(write = Write.ALWAYS)
+    private BigInteger currentBid;
+
+    @Field(write = Write.ALWAYS)
+    private LocalDateTime bidedAt;
+
+    @Field(write = Write.ALWAYS)
+    private Long count;
+
+    // 사용자별 입찰 수. 키는 counterKey(userId) 로 변환해 저장한다.
+    private Map<String, Long> counts;
+
+    private LocalDateTime reconciledAt;
+
+    // 입찰이 들어오면 false 가 되고 BidCounterReconciler 가 bids 와 대조한 뒤 true 로 바꾼다.
+    private Boolean reconciled;
+
+    // counts 가 모든 입찰을 담고 있는지. 카운터가 생기기 전에 만들어진 상태는 대조로 채워지기 전까지 false 다.
+    private Boolean countsSeeded;
+
+    /**
+     * userId 는 필드 이름으로 쓰이므로 Mongo 가 경로로 해석하는 '.' 과 맨 앞의 '$' 를 바꿔 둔다.
+     */
+    public static String counterKey(String userId) {
+        String key = userId.replace('.', '\uFF0E');
+        return key.startsWith("$") ? '\uFF04' + key.substring(1) : key;
+    }
+
+    /**
+     * counts 가 채워지기 전이면 값이 모자랄 수 있으므로 null 을 돌려 bids 에서 세게 한다.
+     */
+    public Long getCount(String userId) {
+        if (!Boolean.TRUE.equals(countsSeeded) || counts == null) {
+            return null;
+        }
+        return counts.getOrDefault(counterKey(userId), 0L);
+    }
+}
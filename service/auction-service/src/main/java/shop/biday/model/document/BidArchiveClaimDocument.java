@@ -0,0 +1,26 @@
+package shop.biday.model.document;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 경매 입찰 보관을 맡은 노드. 한 경매를 한 노드만 보관하도록 claimedUntil 까지 선점한다.
+ */
+@Getter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "bid_archive_claims")
+public class BidArchiveClaimDocument {
+
+    @Id
+    private Long auctionId;
+
+    private String owner;
+
+    private LocalDateTime claimedUntil;
+}
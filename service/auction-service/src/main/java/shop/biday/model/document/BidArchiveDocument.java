@@ -0,0 +1,83 @@
+package shop.biday.model.document;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.mapping.Field.Write;
+
+/**
+ * 종료된 경매의 입찰을 입찰 기록 순서(currentBid desc, bidedAt asc, _id asc)대로 묶어 둔 보관 문서.
+ * 경매마다 bucket 0 부터 최대 bucket 크기만큼씩 나눠 저장하고, _id 는 "auctionId:bucket" 이다.
+ */
+@Getter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "bid_archives")
+public class BidArchiveDocument {
+
+    @Id
+    private String id;
+
+    @Field(write = Write.ALWAYS)
+    private Long auctionId;
+
+    @Field(write = Write.ALWAYS)
+    private Integer bucket;
+
+    @Field(write = Write.ALWAYS)
+    private List<ArchivedBid> bids;
+
+    @Field(write = Write.ALWAYS)
+    private LocalDateTime archivedAt;
+
+    public static String id(Long auctionId, int bucket) {
+        return auctionId + ":" + bucket;
+    }
+
+    @Getter
+    @Builder
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ArchivedBid {
+
+        private String bidId;
+
+        private String userId;
+
+        private BigInteger currentBid;
+
+        private boolean award;
+
+        private LocalDateTime bidedAt;
+
+        public static ArchivedBid of(BidDocument bid) {
+            return ArchivedBid.builder()
+                    .bidId(bid.getId())
+                    .userId(bid.getUserId())
+                    .currentBid(bid.getCurrentBid())
+                    .award(bid.isAward())
+                    .bidedAt(bid.getBidedAt())
+                    .build();
+        }
+
+        public BidDocument toBidDocument(Long auctionId) {
+            return BidDocument.builder()
+                    .id(bidId)
+                    .auctionId(auctionId)
+                    .userId(userId)
+                    .currentBid(currentBid)
+                    .award(award)
+                    .bidedAt(bidedAt)
+                    .build();
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
-import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
@@ -14,7 +13,7 @@ import java.time.LocalDateTime;
 import static org.springframework.data.mongodb.core.mapping.Field.Write;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +29,8 @@ public class BidDocument {
     @Field(write = Write.ALWAYS)
     private String userId;
 
-    @Field(write = Write.ALWAYS, targetType = FieldType.DECIMAL128)
+    // 저장 형식은 ReactiveMongoConfig 의 변환기가 정한다. (Decimal128 또는 int64)
+    @Field(write = Write.ALWAYS)
     private BigInteger currentBid;
 
     @Builder.Default
@@ -0,0 +1,16 @@
+package shop.biday.model.dto;
+
+/**
+ * 경매 등록/수정/종료/삭제 시 발행되는 이벤트. 메모리 캐시와 인덱스가 이 이벤트로 갱신된다.
+ * previousSizeId 는 수정 전 sizeId 이며 UPDATED 에서만 의미가 있다.
+ */
+public record AuctionEvent(Type type, AuctionDto auction, Long previousSizeId) {
+
+    public enum Type {
+        CREATED, UPDATED, CLOSED, DELETED
+    }
+
+    public Long auctionId() {
+        return auction.getId();
+    }
+}
@@ -0,0 +1,37 @@
+package shop.biday.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import shop.biday.model.document.BidDocument;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidHistoryResponse {
+
+    private String id;
+
+    private Long auctionId;
+
+    private BigInteger currentBid;
+
+    private boolean award;
+
+    private LocalDateTime bidedAt;
+
+    public static BidHistoryResponse of(BidDocument bid) {
+        return BidHistoryResponse.builder()
+                .id(bid.getId())
+                .auctionId(bid.getAuctionId())
+                .currentBid(bid.getCurrentBid())
+                .award(bid.isAward())
+                .bidedAt(bid.getBidedAt())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package shop.biday.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidQueryPlan {
+
+    private String query;
+
+    private String stages;
+
+    private boolean collectionScan;
+}
@@ -0,0 +1,31 @@
+package shop.biday.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 입찰 WebSocket 으로 서버가 보내는 메시지.
+ * UPDATE 는 구독한 경매의 최고 입찰, ACK 는 내 입찰의 저장 결과, CLOSED 는 구독한 경매의 종료를 알린다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BidSocketEvent(Type type, String requestId, Long auctionId, BidResponse bid, String code, String message) {
+
+    public enum Type {
+        UPDATE, ACK, ERROR, CLOSED
+    }
+
+    public static BidSocketEvent update(BidResponse bid) {
+        return new BidSocketEvent(Type.UPDATE, null, bid.getAuctionId(), bid, null, null);
+    }
+
+    public static BidSocketEvent ack(String requestId, BidResponse bid) {
+        return new BidSocketEvent(Type.ACK, requestId, bid.getAuctionId(), bid, null, null);
+    }
+
+    public static BidSocketEvent error(String requestId, Long auctionId, String code, String message) {
+        return new BidSocketEvent(Type.ERROR, requestId, auctionId, null, code, message);
+    }
+
+    public static BidSocketEvent closed(Long auctionId) {
+        return new BidSocketEvent(Type.CLOSED, null, auctionId, null, null, null);
+    }
+}
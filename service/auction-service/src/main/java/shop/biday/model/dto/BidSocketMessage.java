@@ -0,0 +1,14 @@
+package shop.biday.model.dto;
+
+import java.math.BigInteger;
+
+/**
+ * 입찰 WebSocket 으로 클라이언트가 보내는 메시지.
+ * requestId 는 클라이언트가 정하며 BID 의 ACK/ERROR 응답에 그대로 돌려준다.
+ */
+public record BidSocketMessage(Type type, String requestId, Long auctionId, BigInteger currentBid) {
+
+    public enum Type {
+        SUBSCRIBE, UNSUBSCRIBE, BID
+    }
+}
@@ -0,0 +1,21 @@
+package shop.biday.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidStorageStats {
+
+    private long count;
+
+    private long size;
+
+    private long avgObjSize;
+
+    private long decimalCount;
+}
@@ -0,0 +1,28 @@
+package shop.biday.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidSummary {
+
+    private Long auctionId;
+
+    private String userId;
+
+    private BigInteger currentBid;
+
+    private boolean award;
+
+    private Long count;
+
+    private LocalDateTime bidedAt;
+}
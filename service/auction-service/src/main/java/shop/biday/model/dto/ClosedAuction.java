@@ -0,0 +1,9 @@
+package shop.biday.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 종료 처리가 끝난 경매의 id 와 closedAt. 종료 순서대로 훑는 keyset 커서로도 쓴다.
+ */
+public record ClosedAuction(Long id, LocalDateTime closedAt) {
+}
@@ -0,0 +1,40 @@
+package shop.biday.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재시도를 모두 소진하고도 종료 처리에 실패한 경매. 경매당 한 행이며, 다시 실패하면 같은 행을 갱신한다.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@ToString
+@Table(name = "auction_close_dead_letters", indexes = {
+        @Index(name = "idx_auction_close_dead_letters_failed", columnList = "failed_at, auction_id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class AuctionCloseDeadLetterEntity {
+
+    @Id
+    @Column(name = "auction_id", nullable = false)
+    private Long auctionId;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "reason", length = 1000)
+    private String reason;
+
+    @UpdateTimestamp
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -15,7 +15,13 @@ import java.time.LocalDateTime;
 @Builder
 @ToString
 @DynamicInsert
-@Table(name = "auctions")
+@Table(name = "auctions", indexes = {
+        @Index(name = "idx_auctions_size_status_ended", columnList = "size_id, status, ended_at, id"),
+        @Index(name = "idx_auctions_size_status_started", columnList = "size_id, status, started_at, id"),
+        @Index(name = "idx_auctions_status_ended", columnList = "status, ended_at, id"),
+        @Index(name = "idx_auctions_user_ended", columnList = "user_id, ended_at, id"),
+        @Index(name = "idx_auctions_closed_ended", columnList = "closed_at, ended_at")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class AuctionEntity {
@@ -49,6 +55,10 @@ public class AuctionEntity {
     @Column(name = "status", nullable = false)
     private boolean status;
 
+    // status 를 true 로 바꾼 뒤 낙찰 저장까지 끝난 시각. status = true 인데 비어 있으면 종료 처리가 끝나지 않은 경매다.
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 @Builder
 @ToString(exclude = "auction")
 @DynamicInsert
-@Table(name = "awards")
+@Table(name = "awards", uniqueConstraints = {
+        // 같은 경매를 두 노드가 종료해도 낙찰은 하나만 남는다.
+        @UniqueConstraint(name = "uk_awards_auction", columnNames = "auction_id")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class AwardEntity {
@@ -0,0 +1,74 @@
+package shop.biday.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * 낙찰 이벤트 outbox. 낙찰과 같은 트랜잭션에서 저장되고, AwardOutboxRelay 가 Redis Stream 으로 내보낸 뒤 publishedAt 을 채운다.
+ * 여러 노드가 같은 행을 내보내지 않도록 relay 는 claimedUntil 까지 행을 선점(claimedBy)한다.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@ToString
+@Table(name = "award_outbox", indexes = {
+        @Index(name = "idx_award_outbox_published", columnList = "published_at, id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public class AwardOutboxEntity {
+
+    public static final String AWARD_CREATED = "AWARD_CREATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "award_id", nullable = false)
+    private Long awardId;
+
+    @Column(name = "auction_id", nullable = false)
+    private Long auctionId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "current_bid", nullable = false)
+    private BigInteger currentBid;
+
+    @Column(name = "bided_at", nullable = false)
+    private LocalDateTime bidedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public static AwardOutboxEntity of(AwardEntity award) {
+        return AwardOutboxEntity.builder()
+                .eventType(AWARD_CREATED)
+                .awardId(award.getId())
+                .auctionId(award.getAuction().getId())
+                .userId(award.getUserId())
+                .currentBid(award.getCurrentBid())
+                .bidedAt(award.getBidedAt())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package shop.biday.model.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import shop.biday.model.entity.AuctionCloseDeadLetterEntity;
+
+@Repository
+public interface AuctionCloseDeadLetterRepository extends JpaRepository<AuctionCloseDeadLetterEntity, Long> {
+
+    Slice<AuctionCloseDeadLetterEntity> findAllByOrderByFailedAtAsc(Pageable pageable);
+}
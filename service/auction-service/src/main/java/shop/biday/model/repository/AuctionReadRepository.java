@@ -0,0 +1,16 @@
+package shop.biday.model.repository;
+
+import reactor.core.publisher.Mono;
+import shop.biday.model.domain.AwardModel;
+import shop.biday.model.dto.AuctionDto;
+
+/**
+ * 요청 경로에서 자주 읽는 경매/낙찰 단건 조회. (description 은 읽지 않는다)
+ * auction.r2dbc.enabled=true 이면 R2DBC 로, 아니면 JPA 를 JdbcExecutor 에서 실행해 읽는다.
+ */
+public interface AuctionReadRepository {
+
+    Mono<AuctionDto> findAuction(Long auctionId);
+
+    Mono<AwardModel> findAward(Long awardId);
+}
@@ -1,10 +1,42 @@
 package shop.biday.model.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import shop.biday.model.dto.ClosedAuction;
 import shop.biday.model.entity.AuctionEntity;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface AuctionRepository extends JpaRepository<AuctionEntity, Long>, QAuctionRepository {
 
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AuctionEntity a SET a.status = true WHERE a.id = :id AND a.status = false")
+    int closeIfOpen(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuctionEntity a SET a.closedAt = :closedAt WHERE a.id = :id AND a.closedAt IS NULL")
+    int markClosed(@Param("id") Long id, @Param("closedAt") LocalDateTime closedAt);
+
+    boolean existsByIdAndClosedAtIsNull(Long id);
+
+    // dead letter 로 남은 경매는 관리자가 redrive 할 때까지 다시 넣지 않는다.
+    @Query("SELECT a.id FROM AuctionEntity a WHERE a.closedAt IS NULL AND a.endedAt BETWEEN :from AND :to " +
+            "AND NOT EXISTS (SELECT d.auctionId FROM AuctionCloseDeadLetterEntity d WHERE d.auctionId = a.id) " +
+            "ORDER BY a.endedAt ASC")
+    List<Long> findClosePending(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new shop.biday.model.dto.ClosedAuction(a.id, a.closedAt) FROM AuctionEntity a " +
+            "WHERE (a.closedAt > :afterClosedAt OR (a.closedAt = :afterClosedAt AND a.id > :afterId)) AND a.closedAt <= :before " +
+            "ORDER BY a.closedAt ASC, a.id ASC")
+    List<ClosedAuction> findClosedAfter(@Param("afterClosedAt") LocalDateTime afterClosedAt, @Param("afterId") Long afterId,
+                                        @Param("before") LocalDateTime before, Pageable pageable);
 }
@@ -0,0 +1,38 @@
+package shop.biday.model.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import shop.biday.model.entity.AwardOutboxEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AwardOutboxRepository extends JpaRepository<AwardOutboxEntity, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: 다른 노드가 선점 중인 행은 기다리지 않고 건너뛴다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM AwardOutboxEntity o WHERE o.publishedAt IS NULL " +
+            "AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.id ASC")
+    List<AwardOutboxEntity> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AwardOutboxEntity o SET o.publishedAt = :publishedAt WHERE o.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AwardOutboxEntity o WHERE o.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -7,4 +7,5 @@ import shop.biday.model.entity.AwardEntity;
 @Repository
 public interface AwardRepository extends JpaRepository<AwardEntity, Long>, QAwardRepository {
 
+    boolean existsByAuctionId(Long auctionId);
 }
\ No newline at end of file
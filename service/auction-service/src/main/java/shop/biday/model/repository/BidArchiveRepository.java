@@ -0,0 +1,19 @@
+package shop.biday.model.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.document.BidArchiveDocument;
+
+@Repository
+public interface BidArchiveRepository extends ReactiveMongoRepository<BidArchiveDocument, String>, MBidArchiveRepository {
+
+    Mono<Boolean> existsByAuctionId(Long auctionId);
+
+    Mono<BidArchiveDocument> findFirstByAuctionIdAndBidsBidId(Long auctionId, String bidId);
+
+    Flux<BidArchiveDocument> findByAuctionIdAndBucketGreaterThanEqualOrderByBucketAsc(Long auctionId, Integer bucket);
+
+    Mono<Long> deleteByAuctionIdAndBucketGreaterThanEqual(Long auctionId, Integer bucket);
+}
@@ -4,6 +4,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import shop.biday.model.document.BidDocument;
 
 @Repository
@@ -12,4 +13,5 @@ public interface BidRepository extends ReactiveMongoRepository<BidDocument, Stri
     @Query(value = "{ 'auctionId': ?0 }", sort = "{ 'currentBid': -1, 'bidedAt': 1 }")
     Flux<BidDocument> findFirstByAuctionIdOrderByCurrentBidDescAndBidedAtAsc(Long auctionId);
 
+    Mono<Long> deleteByAuctionId(Long auctionId);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package shop.biday.model.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface MBidArchiveRepository {
+
+    Mono<Boolean> claim(Long auctionId, String owner, LocalDateTime now, LocalDateTime claimedUntil);
+
+    Mono<Boolean> releaseClaim(Long auctionId, String owner);
+}
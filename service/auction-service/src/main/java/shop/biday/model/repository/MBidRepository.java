@@ -1,7 +1,18 @@
 package shop.biday.model.repository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import shop.biday.model.document.AuctionStateDocument;
 import shop.biday.model.document.BidDocument;
+import shop.biday.model.dto.BidQueryPlan;
+import shop.biday.model.dto.BidStorageStats;
+import shop.biday.model.dto.BidSummary;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface MBidRepository {
 
@@ -9,7 +20,35 @@ public interface MBidRepository {
 
     Mono<Long> countByAuctionId(Long auctionId);
 
-    Mono<Boolean> updateAward(String id);
+    Mono<Boolean> updateAward(Long auctionId, String userId, BigInteger currentBid);
+
+    Mono<Set<Integer>> insertUnordered(List<BidDocument> bids);
 
     Mono<Long> countByAuctionIdAndUserId(Long auctionId, String userId);
+
+    Flux<BidSummary> findOpenBidSummaries();
+
+    Mono<AuctionStateDocument> compareAndSetTopBid(Long auctionId, String userId, BigInteger currentBid, LocalDateTime bidedAt);
+
+    Mono<Boolean> initAuctionState(BidSummary summary);
+
+    Mono<AuctionStateDocument> findAuctionState(Long auctionId);
+
+    Flux<AuctionStateDocument> findUnreconciledAuctionStates(LocalDateTime bidedBefore);
+
+    Mono<Map<String, Long>> countByAuctionIdGroupByUserId(Long auctionId);
+
+    Mono<Boolean> reconcileAuctionState(AuctionStateDocument state, Map<String, Long> counts);
+
+    Mono<Boolean> markReconciled(AuctionStateDocument state);
+
+    Flux<BidDocument> findHistory(Long auctionId, BidDocument after, int limit);
+
+    Mono<Long> convertAmountsToInt64(int batchSize);
+
+    Mono<BidStorageStats> findStorageStats();
+
+    Flux<String> ensureIndexes();
+
+    Flux<BidQueryPlan> explainQueries();
 }
@@ -15,4 +15,6 @@ public interface QAuctionRepository {
     Slice<AuctionDto> findBySize(Long sizeId, String order, Long cursor, Pageable pageable);
 
     List<AuctionDto> findAllBySize(Long sizeId, String order);
+
+    List<AuctionDto> findOpenAuctions();
 }
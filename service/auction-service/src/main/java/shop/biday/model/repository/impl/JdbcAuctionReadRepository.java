@@ -0,0 +1,45 @@
+package shop.biday.model.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import shop.biday.model.domain.AwardModel;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.repository.AuctionReadRepository;
+import shop.biday.model.repository.AuctionRepository;
+import shop.biday.model.repository.AwardRepository;
+import shop.biday.utils.JdbcExecutor;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auction.r2dbc.enabled", havingValue = "false", matchIfMissing = true)
+public class JdbcAuctionReadRepository implements AuctionReadRepository {
+
+    private final AuctionRepository auctionRepository;
+    private final AwardRepository awardRepository;
+    private final JdbcExecutor jdbcExecutor;
+
+    @Override
+    public Mono<AuctionDto> findAuction(Long auctionId) {
+        return jdbcExecutor.call(() -> auctionRepository.findById(auctionId)
+                .map(auction -> AuctionDto.builder()
+                        .id(auction.getId())
+                        .userId(auction.getUserId())
+                        .sizeId(auction.getSizeId())
+                        .startingBid(auction.getStartingBid())
+                        .currentBid(auction.getCurrentBid())
+                        .startedAt(auction.getStartedAt())
+                        .endedAt(auction.getEndedAt())
+                        .status(auction.isStatus())
+                        .createdAt(auction.getCreatedAt())
+                        .updatedAt(auction.getUpdatedAt())
+                        .build())
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<AwardModel> findAward(Long awardId) {
+        return jdbcExecutor.call(() -> awardRepository.findByAwardId(awardId));
+    }
+}
@@ -0,0 +1,44 @@
+package shop.biday.model.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import shop.biday.model.document.BidArchiveClaimDocument;
+import shop.biday.model.repository.MBidArchiveRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+@RequiredArgsConstructor
+public class MBidArchiveRepositoryImpl implements MBidArchiveRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * 선점이 없거나 만료되었거나 이미 owner 의 것이면 claimedUntil 까지 선점한다.
+     * 다른 노드가 선점 중이면 upsert 가 _id 중복으로 실패하므로 false 를 돌려준다.
+     */
+    @Override
+    public Mono<Boolean> claim(Long auctionId, String owner, LocalDateTime now, LocalDateTime claimedUntil) {
+        Update update = new Update()
+                .set("owner", owner)
+                .set("claimedUntil", claimedUntil);
+        return mongoTemplate.upsert(query(where("_id").is(auctionId)
+                                .orOperator(where("claimedUntil").lt(now), where("owner").is(owner))),
+                        update, BidArchiveClaimDocument.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    @Override
+    public Mono<Boolean> releaseClaim(Long auctionId, String owner) {
+        return mongoTemplate.remove(query(where("_id").is(auctionId).and("owner").is(owner)), BidArchiveClaimDocument.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
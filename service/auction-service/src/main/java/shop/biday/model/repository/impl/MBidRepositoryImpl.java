@@ -1,16 +1,45 @@
 package shop.biday.model.repository.impl;
 
 import lombok.RequiredArgsConstructor;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import shop.biday.model.document.AuctionStateDocument;
 import shop.biday.model.document.BidDocument;
+import shop.biday.model.dto.BidQueryPlan;
+import shop.biday.model.dto.BidStorageStats;
+import shop.biday.model.dto.BidSummary;
 import shop.biday.model.repository.MBidRepository;
 
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.springframework.data.domain.Sort.Order.asc;
 import static org.springframework.data.domain.Sort.Order.desc;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
@@ -24,39 +53,360 @@ public class MBidRepositoryImpl implements MBidRepository {
 
     private final ReactiveMongoTemplate mongoTemplate;
 
+    private static final String RANK_INDEX = "auctionId_currentBid_bidedAt_id";
+    private static final String LEGACY_RANK_INDEX = "auctionId_currentBid_bidedAt";
+    private static final int HISTORY_BATCH_SIZE = 100;
+    private static final int DECIMAL128_TYPE = 19;
+    private static final String USER_INDEX = "auctionId_userId";
+    private static final String STATE_RECONCILE_INDEX = "reconciled_bidedAt";
+    private static final Long EXPLAIN_AUCTION_ID = -1L;
+    private static final String EXPLAIN_USER_ID = "explain";
+    private static final Document HISTORY_SORT = new Document("currentBid", -1).append("bidedAt", 1).append("_id", 1);
+
     @Override
     public Mono<BidDocument> findFirstByAuctionIdSorted(Long auctionId) {
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(where("auctionId").is(auctionId)),
-                Aggregation.sort(Sort.by(desc("currentBid"), asc("bidedAt"))),
-                Aggregation.limit(1)
-        );
-        return mongoTemplate.aggregate(aggregation, BidDocument.class, BidDocument.class).next();
+        return mongoTemplate.aggregate(topBidAggregation(auctionId), BidDocument.class, BidDocument.class).next();
     }
 
     @Override
     public Mono<Long> countByAuctionId(Long auctionId) {
-        Query query = new Query();
-        query.addCriteria(where("auctionId")
-                .is(auctionId));
-        return mongoTemplate.count(query, BidDocument.class);
+        return mongoTemplate.count(auctionQuery(auctionId), BidDocument.class);
     }
 
+    /**
+     * auction_states 의 낙찰자와 금액이 같은 입찰 문서에 낙찰 표시를 한다.
+     */
     @Override
-    public Mono<Boolean> updateAward(String id) {
+    public Mono<Boolean> updateAward(Long auctionId, String userId, BigInteger currentBid) {
         return mongoTemplate.updateFirst(
-                        query(where("id").is(id)),
+                        auctionUserQuery(auctionId, userId).addCriteria(where("currentBid").is(currentBid)),
                         update("award", true),
                         BidDocument.class
                 )
                 .map(result -> result.getModifiedCount() > 0);
     }
 
+    /**
+     * 순서 없는 insertMany 로 저장해 한 문서가 실패해도 나머지는 저장되게 하고, 저장하지 못한 문서의 위치를 돌려준다.
+     * 문서별 결과를 알 수 없는 오류는 그대로 전달한다.
+     */
+    @Override
+    public Mono<Set<Integer>> insertUnordered(List<BidDocument> bids) {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BidDocument.class)
+                .insert(bids)
+                .execute()
+                .thenReturn(Set.<Integer>of())
+                .onErrorResume(e -> failedIndexes(e) != null, e -> Mono.just(failedIndexes(e)));
+    }
+
     @Override
     public Mono<Long> countByAuctionIdAndUserId(Long auctionId, String userId) {
-        Query query = new Query();
-        query.addCriteria(where("auctionId").is(auctionId)
+        return mongoTemplate.count(auctionUserQuery(auctionId, userId), BidDocument.class);
+    }
+
+    @Override
+    public Flux<BidSummary> findOpenBidSummaries() {
+        return mongoTemplate.aggregate(openBidSummaryAggregation(), BidDocument.class, BidSummary.class);
+    }
+
+    /**
+     * 저장된 최고가보다 높은 입찰일 때만 경매 상태를 갱신한다.
+     * 상태 문서가 없으면 생성하고, 더 높은 입찰이 이미 있으면 upsert 가 _id 중복으로 실패하므로 빈 값을 돌려준다.
+     */
+    @Override
+    public Mono<AuctionStateDocument> compareAndSetTopBid(Long auctionId, String userId, BigInteger currentBid, LocalDateTime bidedAt) {
+        Query query = query(where("_id").is(auctionId)
+                .and("currentBid").lt(currentBid));
+        Update update = new Update()
+                .set("userId", userId)
+                .set("currentBid", currentBid)
+                .set("bidedAt", bidedAt)
+                .set("reconciled", false)
+                .inc("count", 1)
+                .inc("counts." + AuctionStateDocument.counterKey(userId), 1)
+                // 처음부터 카운터로 만들어진 상태는 counts 가 완전하다.
+                .setOnInsert("countsSeeded", true);
+        return mongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().returnNew(true).upsert(true),
+                        AuctionStateDocument.class)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+    }
+
+    @Override
+    public Mono<Boolean> initAuctionState(BidSummary summary) {
+        Update update = new Update()
+                .setOnInsert("userId", summary.getUserId())
+                .setOnInsert("currentBid", summary.getCurrentBid())
+                .setOnInsert("bidedAt", summary.getBidedAt())
+                .setOnInsert("count", summary.getCount());
+        return mongoTemplate.upsert(query(where("_id").is(summary.getAuctionId())), update, AuctionStateDocument.class)
+                .map(result -> result.getUpsertedId() != null);
+    }
+
+    @Override
+    public Mono<AuctionStateDocument> findAuctionState(Long auctionId) {
+        return mongoTemplate.findById(auctionId, AuctionStateDocument.class);
+    }
+
+    /**
+     * 마지막 입찰 이후 한 번도 검증하지 않은 경매 상태. bidedBefore 이후에 입찰이 있었던 경매는 아직 진행 중이므로 건너뛴다.
+     * reconciled 가 없는 이전 상태도 포함하며, STATE_RECONCILE_INDEX 로 검증이 필요한 상태만 읽는다.
+     */
+    @Override
+    public Flux<AuctionStateDocument> findUnreconciledAuctionStates(LocalDateTime bidedBefore) {
+        Query query = query(where("reconciled").ne(true)
+                .and("bidedAt").lt(bidedBefore));
+        return mongoTemplate.find(query, AuctionStateDocument.class);
+    }
+
+    @Override
+    public Mono<Map<String, Long>> countByAuctionIdGroupByUserId(Long auctionId) {
+        return mongoTemplate.aggregate(userCountAggregation(auctionId), BidDocument.class, Document.class)
+                .collectMap(document -> AuctionStateDocument.counterKey(document.getString("_id")),
+                        document -> ((Number) document.get("count")).longValue());
+    }
+
+    /**
+     * 집계한 사용자별 입찰 수로 카운터를 덮어쓴다. 그 사이 새 입찰이 들어와 bidedAt 이 바뀌었다면 갱신하지 않는다.
+     */
+    @Override
+    public Mono<Boolean> reconcileAuctionState(AuctionStateDocument state, Map<String, Long> counts) {
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        Query query = query(where("_id").is(state.getAuctionId())
+                .and("bidedAt").is(state.getBidedAt()));
+        Update update = new Update()
+                .set("count", total)
+                .set("counts", counts)
+                .set("countsSeeded", true)
+                .set("reconciled", true)
+                .set("reconciledAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, AuctionStateDocument.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    /**
+     * 대조할 수 없는 상태(보관이 끝난 경매)를 다시 읽지 않도록 검증된 것으로 표시한다. counts 는 건드리지 않는다.
+     */
+    @Override
+    public Mono<Boolean> markReconciled(AuctionStateDocument state) {
+        Query query = query(where("_id").is(state.getAuctionId())
+                .and("bidedAt").is(state.getBidedAt()));
+        Update update = new Update()
+                .set("reconciled", true)
+                .set("reconciledAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, AuctionStateDocument.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    /**
+     * 입찰 기록을 (currentBid desc, bidedAt asc, _id asc) 순으로 after 다음부터 읽는다.
+     * limit 이 0 이면 끝까지 읽으며, 드라이버 커서가 요청한 만큼만 batch 로 가져온다.
+     */
+    @Override
+    public Flux<BidDocument> findHistory(Long auctionId, BidDocument after, int limit) {
+        return mongoTemplate.find(historyQuery(auctionId, after).limit(limit), BidDocument.class);
+    }
+
+    /**
+     * Decimal128 로 저장된 금액을 int64 로 바꾼다. bids 는 batchSize 개씩 _id 로 끊어 바꾸므로
+     * 한 번에 긴 쓰기 잠금을 잡지 않고, 중간에 멈춰도 다시 실행하면 남은 문서부터 이어서 바꾼다.
+     * Mongo 는 두 숫자 형식을 값으로 비교하므로 바꾸는 중에도 정렬과 비교는 그대로 맞는다.
+     */
+    @Override
+    public Mono<Long> convertAmountsToInt64(int batchSize) {
+        AggregationUpdate toLong = AggregationUpdate.update()
+                .set("currentBid").toValue(ConvertOperators.valueOf("currentBid").convertToLong());
+
+        Mono<Long> bids = Flux.defer(() -> {
+                    Query batch = decimalAmountQuery().limit(batchSize);
+                    batch.fields().include("_id");
+                    return mongoTemplate.find(batch, BidDocument.class);
+                })
+                .map(BidDocument::getId)
+                .collectList()
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(0L)
+                        : mongoTemplate.updateMulti(query(where("_id").in(ids)), toLong, BidDocument.class)
+                                .map(UpdateResult::getModifiedCount))
+                .repeat()
+                .takeUntil(modified -> modified == 0)
+                .reduce(0L, Long::sum);
+        Mono<Long> states = mongoTemplate.updateMulti(decimalAmountQuery(), toLong, AuctionStateDocument.class)
+                .map(UpdateResult::getModifiedCount);
+
+        return Mono.zip(bids, states, Long::sum);
+    }
+
+    @Override
+    public Mono<BidStorageStats> findStorageStats() {
+        return Mono.zip(
+                        mongoTemplate.executeCommand(new Document("collStats", mongoTemplate.getCollectionName(BidDocument.class))),
+                        mongoTemplate.count(decimalAmountQuery(), BidDocument.class))
+                .map(tuple -> BidStorageStats.builder()
+                        .count(((Number) tuple.getT1().get("count")).longValue())
+                        .size(((Number) tuple.getT1().get("size")).longValue())
+                        .avgObjSize(((Number) tuple.getT1().getOrDefault("avgObjSize", 0)).longValue())
+                        .decimalCount(tuple.getT2())
+                        .build());
+    }
+
+    /**
+     * 위 조회들이 사용하는 복합 인덱스를 만든다. 이미 있으면 아무 일도 하지 않는다.
+     * auctionId_currentBid_bidedAt_id 는 최고 입찰 정렬, 입찰 기록 keyset 조회와 경매별 카운트를,
+     * auctionId_userId 는 사용자별 카운트를, auction_states 의 reconciled_bidedAt 은 입찰 수 검증 대상 조회를 처리한다. _id 가 없던 이전 정렬 인덱스는 새 인덱스의 접두어이므로 지운다.
+     */
+    @Override
+    public Flux<String> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(BidDocument.class);
+        return Flux.concat(
+                indexOps.ensureIndex(new Index()
+                        .on("auctionId", Sort.Direction.ASC)
+                        .on("currentBid", Sort.Direction.DESC)
+                        .on("bidedAt", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named(RANK_INDEX)),
+                indexOps.getIndexInfo()
+                        .filter(index -> LEGACY_RANK_INDEX.equals(index.getName()))
+                        .flatMap(index -> indexOps.dropIndex(LEGACY_RANK_INDEX).thenReturn(LEGACY_RANK_INDEX + " dropped")),
+                indexOps.ensureIndex(new Index()
+                        .on("auctionId", Sort.Direction.ASC)
+                        .on("userId", Sort.Direction.ASC)
+                        .named(USER_INDEX)),
+                mongoTemplate.indexOps(AuctionStateDocument.class).ensureIndex(new Index()
+                        .on("reconciled", Sort.Direction.ASC)
+                        .on("bidedAt", Sort.Direction.ASC)
+                        .named(STATE_RECONCILE_INDEX))
+        );
+    }
+
+    /**
+     * 이 저장소의 bids 조회마다 explain 을 실행해 선택된 실행 계획의 stage 를 돌려준다.
+     */
+    @Override
+    public Flux<BidQueryPlan> explainQueries() {
+        return Flux.concat(
+                explainAggregate("findFirstByAuctionIdSorted", topBidAggregation(EXPLAIN_AUCTION_ID)),
+                explainFind("countByAuctionId", auctionQuery(EXPLAIN_AUCTION_ID).getQueryObject(), new Document()),
+                explainFind("countByAuctionIdAndUserId",
+                        auctionUserQuery(EXPLAIN_AUCTION_ID, EXPLAIN_USER_ID).getQueryObject(), new Document()),
+                explainFind("updateAward",
+                        auctionUserQuery(EXPLAIN_AUCTION_ID, EXPLAIN_USER_ID).getQueryObject(), new Document()),
+                explainAggregate("findOpenBidSummaries", openBidSummaryAggregation()),
+                explainAggregate("countByAuctionIdGroupByUserId", userCountAggregation(EXPLAIN_AUCTION_ID)),
+                explainFind("findHistory", historyQuery(EXPLAIN_AUCTION_ID, null).getQueryObject(), HISTORY_SORT)
+        );
+    }
+
+    private Aggregation topBidAggregation(Long auctionId) {
+        return Aggregation.newAggregation(
+                Aggregation.match(where("auctionId").is(auctionId)),
+                Aggregation.sort(Sort.by(desc("currentBid"), asc("bidedAt"))),
+                Aggregation.limit(1)
+        );
+    }
+
+    // auctionId 를 정렬 앞에 두어 RANK_INDEX 를 그대로 타게 한다.
+    private Aggregation openBidSummaryAggregation() {
+        return Aggregation.newAggregation(
+                Aggregation.sort(Sort.by(asc("auctionId"), desc("currentBid"), asc("bidedAt"))),
+                Aggregation.group("auctionId")
+                        .first("userId").as("userId")
+                        .first("currentBid").as("currentBid")
+                        .first("award").as("award")
+                        .first("bidedAt").as("bidedAt")
+                        .count().as("count"),
+                Aggregation.match(where("award").is(false)),
+                Aggregation.project("userId", "currentBid", "award", "bidedAt", "count")
+                        .and("auctionId").previousOperation()
+        ).withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+    }
+
+    private Aggregation userCountAggregation(Long auctionId) {
+        return Aggregation.newAggregation(
+                Aggregation.match(where("auctionId").is(auctionId)),
+                Aggregation.group("userId").count().as("count")
+        );
+    }
+
+    private Query historyQuery(Long auctionId, BidDocument after) {
+        Criteria criteria = where("auctionId").is(auctionId);
+        if (after != null) {
+            ObjectId afterId = new ObjectId(after.getId());
+            criteria.orOperator(
+                    where("currentBid").lt(after.getCurrentBid()),
+                    where("currentBid").is(after.getCurrentBid()).and("bidedAt").gt(after.getBidedAt()),
+                    where("currentBid").is(after.getCurrentBid()).and("bidedAt").is(after.getBidedAt())
+                            .and("_id").gt(afterId));
+        }
+        return query(criteria)
+                .with(Sort.by(desc("currentBid"), asc("bidedAt"), asc("_id")))
+                .cursorBatchSize(HISTORY_BATCH_SIZE);
+    }
+
+    private static Set<Integer> failedIndexes(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkOperationException bulk) {
+                return bulk.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            }
+            if (cause instanceof MongoBulkWriteException bulk) {
+                return bulk.getWriteErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            }
+        }
+        return null;
+    }
+
+    private Query decimalAmountQuery() {
+        return query(where("currentBid").type(DECIMAL128_TYPE));
+    }
+
+    private Query auctionQuery(Long auctionId) {
+        return query(where("auctionId").is(auctionId));
+    }
+
+    private Query auctionUserQuery(Long auctionId, String userId) {
+        return query(where("auctionId").is(auctionId)
                 .and("userId").is(userId));
-        return mongoTemplate.count(query, BidDocument.class);
+    }
+
+    private Mono<BidQueryPlan> explainFind(String name, Document filter, Document sort) {
+        return bidCollection()
+                .flatMap(collection -> Mono.from(collection.find(filter).sort(sort).explain(Document.class)))
+                .map(explain -> toQueryPlan(name, explain));
+    }
+
+    private Mono<BidQueryPlan> explainAggregate(String name, Aggregation aggregation) {
+        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+        return bidCollection()
+                .flatMap(collection -> Mono.from(collection.aggregate(pipeline).explain(Document.class)))
+                .map(explain -> toQueryPlan(name, explain));
+    }
+
+    private Mono<MongoCollection<Document>> bidCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(BidDocument.class));
+    }
+
+    private BidQueryPlan toQueryPlan(String name, Document explain) {
+        List<String> stages = new ArrayList<>();
+        collectStages(explain, stages);
+        return BidQueryPlan.builder()
+                .query(name)
+                .stages(String.join(",", stages))
+                .collectionScan(stages.contains("COLLSCAN"))
+                .build();
+    }
+
+    // explain 결과의 구조는 find/aggregate, 서버 버전마다 다르므로 rejectedPlans 를 제외한 모든 stage 를 모은다.
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            document.forEach((key, value) -> {
+                if ("stage".equals(key) && value instanceof String stage) {
+                    stages.add(stage);
+                } else if (!"rejectedPlans".equals(key)) {
+                    collectStages(value, stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.querydsl.core.types.ConstructorExpression;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.DateTimePath;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -72,8 +73,8 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
         // 날짜 범위 조건 설정
         BooleanExpression datePredicate = startDate != null ? qAuction.startedAt.goe(startDate) : null;
 
-        // 커서 기반 조건 설정
-        BooleanExpression cursorPredicate = cursor != null ? qAuction.id.lt(cursor) : null;
+        // 커서 기반 조건 설정, (endedAt, id) 내림차순 seek
+        BooleanExpression cursorPredicate = seek(qAuction.endedAt, cursor, true);
 
         // QueryDSL 쿼리 빌더
         List<AuctionDto> auctions = queryFactory
@@ -82,7 +83,8 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
                 .where(qAuction.userId.eq(user)
                         .and(datePredicate)
                         .and(cursorPredicate))
-                .orderBy(qAuction.endedAt.desc())
+                .orderBy(qAuction.endedAt.desc(), qAuction.id.desc())
+                .limit(pageable.getPageSize() + 1)
                 .fetch();
 
         return createSlice(auctions, pageable);
@@ -91,12 +93,11 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
     @Override
     public Slice<AuctionDto> findBySize(Long sizeId, String order, Long cursor, Pageable pageable) {
         BooleanExpression sizePredicate = sizeId != null ? qAuction.sizeId.eq(sizeId) : null;
-        BooleanExpression cursorPredicate = cursor != null ? qAuction.id.lt(cursor) : null;
 
-        OrderSpecifier<?> datePredicate = switch (order) {
-            case "종료 임박 순" -> qAuction.endedAt.asc();
-            case "시작 순" -> qAuction.startedAt.asc();
-            default -> qAuction.startedAt.asc();
+        DateTimePath<LocalDateTime> sortKey = switch (order) {
+            case "종료 임박 순" -> qAuction.endedAt;
+            case "시작 순" -> qAuction.startedAt;
+            default -> qAuction.startedAt;
         };
 
         List<AuctionDto> auctions = queryFactory
@@ -104,11 +105,12 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
                 .from(qAuction)
                 .where(
                         sizePredicate,
-                        cursorPredicate,
+                        seek(sortKey, cursor, false),
                         qAuction.status.eq(false),
                         qAuction.endedAt.goe(LocalDateTime.now())
                 )
-                .orderBy(datePredicate)
+                .orderBy(sortKey.asc(), qAuction.id.asc())
+                .limit(pageable.getPageSize() + 1)
                 .fetch();
         return createSlice(auctions, pageable);
     }
@@ -133,6 +135,29 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
                 .fetch();
     }
 
+    /**
+     * 종료되지 않은 모든 경매. 기동 시 메모리 스케줄러와 인덱스를 다시 만들 때 사용한다.
+     * 열린 경매 전체를 읽으므로 LONGTEXT 인 description 은 읽지 않는다.
+     */
+    @Override
+    public List<AuctionDto> findOpenAuctions() {
+        return queryFactory
+                .select(Projections.fields(AuctionDto.class,
+                        qAuction.id,
+                        qAuction.userId,
+                        qAuction.sizeId,
+                        qAuction.startingBid,
+                        qAuction.currentBid,
+                        qAuction.startedAt,
+                        qAuction.endedAt,
+                        qAuction.status,
+                        qAuction.createdAt,
+                        qAuction.updatedAt))
+                .from(qAuction)
+                .where(qAuction.status.eq(false))
+                .fetch();
+    }
+
     private ConstructorExpression<AuctionDto> createAuctionDtoProjection() {
         return Projections.constructor(AuctionDto.class,
                 qAuction.id,
@@ -148,6 +173,26 @@ public class QAuctionRepositoryImpl implements QAuctionRepository {
                 qAuction.updatedAt);
     }
 
+    /**
+     * 커서 경매의 정렬 키를 PK 로 읽어 (sortKey, id) 복합 커서 다음 행부터 조회하는 조건을 만든다.
+     */
+    private BooleanExpression seek(DateTimePath<LocalDateTime> sortKey, Long cursor, boolean descending) {
+        if (cursor == null) {
+            return null;
+        }
+        LocalDateTime cursorKey = queryFactory
+                .select(sortKey)
+                .from(qAuction)
+                .where(qAuction.id.eq(cursor))
+                .fetchOne();
+        if (cursorKey == null) {
+            return descending ? qAuction.id.lt(cursor) : qAuction.id.gt(cursor);
+        }
+        return descending
+                ? sortKey.lt(cursorKey).or(sortKey.eq(cursorKey).and(qAuction.id.lt(cursor)))
+                : sortKey.gt(cursorKey).or(sortKey.eq(cursorKey).and(qAuction.id.gt(cursor)));
+    }
+
     private Slice<AuctionDto> createSlice(List<AuctionDto> auctions, Pageable pageable) {
         boolean hasNext = auctions.size() > pageable.getPageSize();
         if (hasNext) {
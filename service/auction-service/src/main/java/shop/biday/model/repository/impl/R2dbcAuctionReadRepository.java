@@ -0,0 +1,66 @@
+package shop.biday.model.repository.impl;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import shop.biday.model.domain.AwardModel;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.repository.AuctionReadRepository;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auction.r2dbc.enabled", havingValue = "true")
+public class R2dbcAuctionReadRepository implements AuctionReadRepository {
+
+    private static final String AUCTION_COLUMNS = """
+            a.id, a.user_id, a.size_id, a.starting_bid, a.current_bid, a.started_at, a.ended_at, a.status,
+            a.created_at, a.updated_at""";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<AuctionDto> findAuction(Long auctionId) {
+        return databaseClient.sql("SELECT " + AUCTION_COLUMNS + " FROM auctions a WHERE a.id = :id")
+                .bind("id", auctionId)
+                .map(this::toAuction)
+                .one();
+    }
+
+    @Override
+    public Mono<AwardModel> findAward(Long awardId) {
+        return databaseClient.sql("SELECT w.id AS award_id, w.user_id AS award_user_id, w.bided_at, "
+                        + "w.current_bid AS award_current_bid, w.count, " + AUCTION_COLUMNS
+                        + " FROM awards w LEFT JOIN auctions a ON a.id = w.auction_id WHERE w.id = :id")
+                .bind("id", awardId)
+                .map(row -> AwardModel.builder()
+                        .id(row.get("award_id", Long.class))
+                        .auction(toAuction(row))
+                        .userId(row.get("award_user_id", String.class))
+                        .bidedAt(row.get("bided_at", LocalDateTime.class))
+                        .currentBid(row.get("award_current_bid", BigInteger.class))
+                        .count(row.get("count", Long.class))
+                        .build())
+                .one();
+    }
+
+    private AuctionDto toAuction(Readable row) {
+        return AuctionDto.builder()
+                .id(row.get("id", Long.class))
+                .userId(row.get("user_id", String.class))
+                .sizeId(row.get("size_id", Long.class))
+                .startingBid(row.get("starting_bid", Long.class))
+                .currentBid(row.get("current_bid", Long.class))
+                .startedAt(row.get("started_at", LocalDateTime.class))
+                .endedAt(row.get("ended_at", LocalDateTime.class))
+                .status(Boolean.TRUE.equals(row.get("status", Boolean.class)))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
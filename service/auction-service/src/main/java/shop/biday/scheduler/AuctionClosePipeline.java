@@ -0,0 +1,289 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+import shop.biday.cache.BidSnapshotCache;
+import shop.biday.model.document.BidDocument;
+import shop.biday.model.entity.AuctionEntity;
+import shop.biday.model.entity.AwardEntity;
+import shop.biday.service.AuctionCloseDeadLetterService;
+import shop.biday.service.AuctionPriceService;
+import shop.biday.service.AuctionService;
+import shop.biday.service.AwardService;
+import shop.biday.service.BidArchiveService;
+import shop.biday.service.BidFanoutService;
+import shop.biday.service.BidService;
+import shop.biday.utils.JdbcExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 경매 종료 처리 파이프라인.
+ * Quartz 는 종료할 auctionId 를 넣기만 하고, 최고 입찰 조회/낙찰 표시/낙찰 저장은 여기서 논블로킹으로 처리한다.
+ * 동시에 처리하는 경매 수는 concurrency 로 제한하고, 낙찰 저장은 묶어서 한 번에 한다.
+ * 종료가 끝난 경매의 입찰은 BidArchiveService 가 bid_archives 로 옮긴다.
+ * 재시도 후에도 실패한 경매는 AuctionCloseDeadLetterService 에 남겨 나중에 다시 처리할 수 있게 한다.
+ * 종료는 status 를 false 에서 true 로 바꾼 노드만 진행하고, 낙찰 저장까지 끝나면 closedAt 을 채운다.
+ * 재시도/재처리 요청(recovering)은 status 가 이미 true 여도 closedAt 과 낙찰이 없으면 이어서 종료한다.
+ */
+@Slf4j
+@Component
+public class AuctionClosePipeline {
+
+    private final AuctionService auctionService;
+    private final AwardService awardService;
+    private final BidService bidService;
+    private final BidFanoutService bidFanoutService;
+    private final BidSnapshotCache bidSnapshotCache;
+    private final AuctionPriceService auctionPriceService;
+    private final BidArchiveService bidArchiveService;
+    private final AuctionCloseDeadLetterService deadLetterService;
+    private final JdbcExecutor jdbcExecutor;
+
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final int awardBatchSize;
+    private final Duration awardBatchWindow;
+    private final int capacity;
+
+    private volatile Sinks.Many<CloseRequest> closeRequests;
+    private volatile boolean stopped = false;
+
+    public AuctionClosePipeline(AuctionService auctionService,
+                                AwardService awardService,
+                                BidService bidService,
+                                BidFanoutService bidFanoutService,
+                                BidSnapshotCache bidSnapshotCache,
+                                AuctionPriceService auctionPriceService,
+                                BidArchiveService bidArchiveService,
+                                AuctionCloseDeadLetterService deadLetterService,
+                                JdbcExecutor jdbcExecutor,
+                                @Value("${auction.close.concurrency:16}") int concurrency,
+                                @Value("${auction.close.retry.max-attempts:5}") int maxAttempts,
+                                @Value("${auction.close.retry.base-ms:1000}") long retryBaseMillis,
+                                @Value("${auction.close.retry.max-ms:300000}") long retryMaxMillis,
+                                @Value("${auction.close.award-batch.size:50}") int awardBatchSize,
+                                @Value("${auction.close.award-batch.window-ms:200}") long awardBatchWindowMillis,
+                                @Value("${auction.close.capacity:10000}") int capacity) {
+        this.auctionService = auctionService;
+        this.awardService = awardService;
+        this.bidService = bidService;
+        this.bidFanoutService = bidFanoutService;
+        this.bidSnapshotCache = bidSnapshotCache;
+        this.auctionPriceService = auctionPriceService;
+        this.bidArchiveService = bidArchiveService;
+        this.deadLetterService = deadLetterService;
+        this.jdbcExecutor = jdbcExecutor;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.retryBase = Duration.ofMillis(retryBaseMillis);
+        this.retryMax = Duration.ofMillis(retryMaxMillis);
+        this.awardBatchSize = awardBatchSize;
+        this.awardBatchWindow = Duration.ofMillis(awardBatchWindowMillis);
+        this.capacity = capacity;
+    }
+
+    @PostConstruct
+    public void start() {
+        run();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        closeRequests.tryEmitComplete();
+    }
+
+    private synchronized void run() {
+        Sinks.Many<CloseRequest> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<CloseRequest>get(capacity).get());
+        closeRequests = sink;
+        sink.asFlux()
+                .flatMap(request -> close(request)
+                        .onErrorResume(e -> {
+                            log.error("경매 종료 처리 실패 auctionId: {}, {}", request.auctionId(), e.getMessage());
+                            return deadLetter(List.of(request.auctionId()), "pipeline.close", maxAttempts, e);
+                        }), concurrency)
+                // 낙찰 저장이 밀린 동안 타이머가 버퍼를 내보내려다 오류로 끝나지 않도록 요청 수에 맞춘다.
+                .bufferTimeout(awardBatchSize, awardBatchWindow, true)
+                .concatMap(this::saveAwards)
+                .subscribe(null, e -> restart(sink, e), () -> restart(sink, null));
+    }
+
+    /**
+     * 파이프라인이 끝나면 새 대기열로 다시 시작해 이후 종료 요청을 계속 받는다.
+     */
+    private synchronized void restart(Sinks.Many<CloseRequest> terminated, Throwable error) {
+        if (closeRequests != terminated || stopped) {
+            return;
+        }
+        log.error("경매 종료 파이프라인 종료, 다시 시작합니다. {}", error != null ? error.getMessage() : "completed");
+        run();
+    }
+
+    public boolean enqueue(Long auctionId) {
+        return enqueue(auctionId, false);
+    }
+
+    /**
+     * recovering 이면 이전 시도가 status 만 바꾸고 끝나지 못한 경매도 이어서 종료한다.
+     */
+    public synchronized boolean enqueue(Long auctionId, boolean recovering) {
+        Sinks.EmitResult result = closeRequests.tryEmitNext(new CloseRequest(auctionId, recovering));
+        if (result.isFailure()) {
+            log.warn("경매 종료 요청 추가 실패 auctionId: {}, result: {}", auctionId, result);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 종료 처리가 끝났거나(closedAt) 낙찰이 저장된 경매인지 확인한다.
+     */
+    public Mono<Boolean> isFinished(Long auctionId) {
+        return jdbcExecutor.call(() -> auctionService.isClosed(auctionId) || awardService.existsByAuctionId(auctionId));
+    }
+
+    private Mono<AwardEntity> close(CloseRequest request) {
+        Long auctionId = request.auctionId();
+        // 첫 시도가 status 를 바꾼 뒤 실패했을 수 있으므로 재시도는 recovering 으로 이어서 종료한다.
+        AtomicBoolean retried = new AtomicBoolean(request.recovering());
+        return Mono.defer(() -> claim(auctionId, retried.getAndSet(true)))
+                .flatMap(this::award)
+                // Quartz 재시도와 같은 auction.close.retry.* 설정으로 지수 백오프와 jitter 를 준다.
+                .retryWhen(Retry.backoff(Math.max(maxAttempts - 1, 0), retryBase)
+                        .maxBackoff(retryMax)
+                        .jitter(0.5));
+    }
+
+    /**
+     * 종료할 경매를 가져온다. 다른 노드가 이미 종료했거나 종료 중인 경매는 비어 있는 Mono 를 돌려준다.
+     */
+    private Mono<AuctionEntity> claim(Long auctionId, boolean recovering) {
+        return jdbcExecutor.call(() -> {
+            ResponseEntity<AuctionEntity> response = auctionService.updateState(auctionId);
+            AuctionEntity auction = response.getBody();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                return auction;
+            }
+            if (auction == null || !recovering || auction.getClosedAt() != null) {
+                log.info("이미 종료된 경매입니다. auctionId: {}, status: {}", auctionId, response.getStatusCode());
+                return null;
+            }
+            if (awardService.existsByAuctionId(auctionId)) {
+                // 낙찰 저장 뒤 closedAt 을 채우기 전에 멈춘 경우라 표시만 남긴다.
+                auctionService.markClosed(auctionId);
+                return null;
+            }
+            log.warn("종료 처리가 끝나지 않은 경매를 이어서 처리합니다. auctionId: {}", auctionId);
+            return auction;
+        });
+    }
+
+    private Mono<AwardEntity> award(AuctionEntity auction) {
+        Long auctionId = auction.getId();
+        return bidService.findTopBidByAuctionId(auctionId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(topBid -> {
+                    if (topBid.isEmpty()) {
+                        log.info("입찰자가 없습니다. auctionId: {}", auctionId);
+                        return finish(auctionId).then(Mono.<AwardEntity>empty());
+                    }
+
+                    BidDocument findTopBid = topBid.get();
+                    // write-behind 로 아직 반영되지 않았을 수 있는 최종가를 기록한다.
+                    auctionPriceService.record(auctionId, findTopBid.getCurrentBid());
+                    return Mono.zip(
+                                    bidService.countBidByAuctionIdAndUserId(auctionId, findTopBid.getUserId()),
+                                    bidService.updateAward(auctionId).defaultIfEmpty(false))
+                            .map(result -> AwardEntity.builder()
+                                    .auction(auction)
+                                    .userId(findTopBid.getUserId())
+                                    .bidedAt(findTopBid.getBidedAt())
+                                    .currentBid(findTopBid.getCurrentBid())
+                                    .count(result.getT1())
+                                    .build());
+                });
+    }
+
+    /**
+     * 낙찰을 한 트랜잭션으로 묶어 저장하고, 실패하면 한 건씩 다시 저장해 문제가 된 낙찰만 dead letter 로 남긴다.
+     */
+    private Mono<Void> saveAwards(List<AwardEntity> awards) {
+        return jdbcExecutor.call(() -> awardService.saveAll(awards))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(award -> finish(award.getAuction().getId()))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("낙찰 일괄 저장 실패, 한 건씩 저장합니다. size: {}, {}", awards.size(), e.getMessage());
+                    return Flux.fromIterable(awards)
+                            .concatMap(this::saveAward)
+                            .then();
+                });
+    }
+
+    private Mono<Void> saveAward(AwardEntity award) {
+        Long auctionId = award.getAuction().getId();
+        return jdbcExecutor.call(() -> awardService.saveAll(List.of(award)))
+                .then(finish(auctionId))
+                .onErrorResume(DataIntegrityViolationException.class, e -> jdbcExecutor.call(() -> awardService.existsByAuctionId(auctionId))
+                        .flatMap(awarded -> {
+                            if (!awarded) {
+                                return Mono.error(e);
+                            }
+                            // 다른 노드가 먼저 낙찰을 저장했다.
+                            log.info("이미 저장된 낙찰입니다. auctionId: {}", auctionId);
+                            return finish(auctionId);
+                        }))
+                .onErrorResume(e -> {
+                    log.error("낙찰 저장 실패 auctionId: {}, {}", auctionId, e.getMessage());
+                    return deadLetter(List.of(auctionId), "pipeline.award", 1, e);
+                });
+    }
+
+    private <T> Mono<T> deadLetter(List<Long> auctionIds, String source, int attempts, Throwable error) {
+        return jdbcExecutor.call(() -> {
+                    auctionIds.forEach(auctionId -> deadLetterService.record(auctionId, source, attempts, error.getMessage()));
+                    return auctionIds.size();
+                })
+                .onErrorResume(e -> {
+                    log.error("dead letter 저장 실패 auctionIds: {}, {}", auctionIds, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.empty());
+    }
+
+    /**
+     * closedAt 을 채우고 로컬 구독/캐시를 정리한다. 표시에 실패해도 AuctionCloseSweeper 가 다시 확인하므로 정리는 계속한다.
+     */
+    private Mono<Void> finish(Long auctionId) {
+        return jdbcExecutor.call(() -> auctionService.markClosed(auctionId))
+                .onErrorResume(e -> {
+                    log.error("경매 종료 표시 실패 auctionId: {}, {}", auctionId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(() -> {
+                    bidFanoutService.close(auctionId);
+                    bidSnapshotCache.evict(auctionId);
+                    bidArchiveService.scheduleArchive(auctionId);
+                }));
+    }
+
+    private record CloseRequest(Long auctionId, boolean recovering) {
+    }
+}
@@ -0,0 +1,133 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 경매 종료를 어느 노드가 맡을지 auctionId 로 나눈다. (auction.close.shard.enabled=true)
+ * 노드는 heartbeat-ms 마다 Redis sorted set 에 (nodeId, 현재 시각) 을 남기고, ttl-ms 안에 체크인한 노드만 살아 있는 것으로 본다.
+ * 담당 노드는 rendezvous hashing 으로 정하므로 노드가 늘거나 줄어도 그 노드 몫의 경매만 옮겨 간다.
+ * Redis 에 닿지 못하면 마지막으로 본 노드 목록을 그대로 쓴다. 꺼져 있으면 모든 경매를 이 노드가 맡는다.
+ */
+@Slf4j
+@Component
+public class AuctionCloseShards {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String membersKey;
+    private final String nodeId;
+    private final Duration heartbeat;
+    private final long ttlMillis;
+
+    private volatile List<String> members;
+    private Disposable subscription = Disposables.disposed();
+
+    public AuctionCloseShards(ReactiveStringRedisTemplate redisTemplate,
+                              @Value("${auction.close.shard.enabled:${auction.redis.enabled:false}}") boolean enabled,
+                              @Value("${auction.close.shard.key:auction:close:nodes}") String membersKey,
+                              @Value("${auction.close.shard.node-id:}") String nodeId,
+                              @Value("${auction.close.shard.heartbeat-ms:3000}") long heartbeatMillis,
+                              @Value("${auction.close.shard.ttl-ms:10000}") long ttlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.membersKey = membersKey;
+        // 한 JVM 에 여러 인스턴스를 띄워도 겹치지 않도록 지정하지 않으면 무작위로 만든다.
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.heartbeat = Duration.ofMillis(heartbeatMillis);
+        this.ttlMillis = ttlMillis;
+        this.members = List.of(this.nodeId);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("AuctionCloseShards nodeId: {}", nodeId);
+        subscription = Flux.interval(Duration.ZERO, heartbeat)
+                .onBackpressureDrop()
+                .concatMap(tick -> checkIn()
+                        .onErrorResume(e -> {
+                            log.warn("경매 종료 노드 체크인 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+        if (enabled) {
+            // 바로 빠져야 다른 노드가 ttl 을 기다리지 않고 이 노드의 경매를 넘겨받는다.
+            redisTemplate.opsForZSet().remove(membersKey, nodeId)
+                    .subscribe(removed -> log.info("경매 종료 노드 탈퇴 nodeId: {}", nodeId),
+                            e -> log.warn("경매 종료 노드 탈퇴 실패: {}", e.getMessage()));
+        }
+    }
+
+    public boolean owns(Long auctionId) {
+        return !enabled || nodeId.equals(owner(auctionId));
+    }
+
+    public String owner(Long auctionId) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String member : members) {
+            long score = mix(member.hashCode() * 0x9E3779B97F4A7C15L + auctionId);
+            if (owner == null || score > best) {
+                owner = member;
+                best = score;
+            }
+        }
+        return owner;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    private Mono<List<String>> checkIn() {
+        long now = System.currentTimeMillis();
+        long expiredBefore = now - ttlMillis;
+        return redisTemplate.opsForZSet().add(membersKey, nodeId, now)
+                .then(redisTemplate.opsForZSet().removeRangeByScore(membersKey,
+                        Range.rightOpen(Double.NEGATIVE_INFINITY, (double) expiredBefore)))
+                .thenMany(redisTemplate.opsForZSet().rangeByScore(membersKey,
+                        Range.closed((double) expiredBefore, Double.POSITIVE_INFINITY)))
+                .collectSortedList()
+                .filter(live -> !live.isEmpty())
+                .doOnNext(live -> {
+                    if (!live.equals(members)) {
+                        log.info("경매 종료 노드 변경 {} -> {}", members.size(), live.size());
+                    }
+                    members = List.copyOf(live);
+                });
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9e53a8f5b51L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,91 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.service.AuctionService;
+import shop.biday.utils.JdbcExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 종료 시각이 grace-ms 넘게 지났는데 closedAt 이 비어 있는 경매를 다시 종료 처리에 넣는다.
+ * Quartz Job 과 TimingWheel 은 파이프라인에 넣기만 하므로, 넣은 뒤 노드가 죽거나 재시작되면 메모리의 요청은 사라진다.
+ * status 가 true 로 남은 경매는 이 표시로 찾아 recovering 으로 이어서 종료하고, 낙찰이 이미 있으면 표시만 채운다.
+ * 이전 버전에서 종료되어 closedAt 이 없는 경매까지 다시 훑지 않도록 lookback-ms 안에 끝난 경매만 본다.
+ * 여러 노드에서는 AuctionCloseShards 의 담당 노드만 넣는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.close.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class AuctionCloseSweeper {
+
+    private final AuctionService auctionService;
+    private final AuctionClosePipeline auctionClosePipeline;
+    private final AuctionCloseShards auctionCloseShards;
+    private final JdbcExecutor jdbcExecutor;
+    private final Duration interval;
+    private final Duration grace;
+    private final Duration lookback;
+    private final int batchSize;
+
+    private Disposable subscription = Disposables.disposed();
+
+    public AuctionCloseSweeper(AuctionService auctionService,
+                               AuctionClosePipeline auctionClosePipeline,
+                               AuctionCloseShards auctionCloseShards,
+                               JdbcExecutor jdbcExecutor,
+                               @Value("${auction.close.sweep.interval-ms:60000}") long intervalMillis,
+                               @Value("${auction.close.sweep.grace-ms:300000}") long graceMillis,
+                               @Value("${auction.close.sweep.lookback-ms:86400000}") long lookbackMillis,
+                               @Value("${auction.close.sweep.batch-size:500}") int batchSize) {
+        this.auctionService = auctionService;
+        this.auctionClosePipeline = auctionClosePipeline;
+        this.auctionCloseShards = auctionCloseShards;
+        this.jdbcExecutor = jdbcExecutor;
+        this.interval = Duration.ofMillis(intervalMillis);
+        this.grace = Duration.ofMillis(graceMillis);
+        this.lookback = Duration.ofMillis(lookbackMillis);
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(e -> {
+                            log.error("종료되지 않은 경매 확인 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    public Mono<Long> sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        // 백오프를 모두 쓰고 dead letter 로 남은 경매는 조회에서 빠진다. redrive 로 dead letter 가 지워지면 다시 확인한다.
+        return jdbcExecutor.call(() -> auctionService.findClosePending(now.minus(lookback), now.minus(grace), batchSize))
+                .flatMapMany(Flux::fromIterable)
+                .filter(auctionCloseShards::owns)
+                .takeWhile(auctionId -> auctionClosePipeline.enqueue(auctionId, true))
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.warn("종료되지 않은 경매를 다시 종료 처리에 넣었습니다. count: {}", count);
+                    }
+                });
+    }
+}
@@ -0,0 +1,15 @@
+package shop.biday.scheduler;
+
+import java.time.LocalDateTime;
+
+public interface AuctionEndScheduler {
+
+    void schedule(Long auctionId, LocalDateTime endedAt);
+
+    void cancel(Long auctionId);
+
+    default void reschedule(Long auctionId, LocalDateTime endedAt) {
+        cancel(auctionId);
+        schedule(auctionId, endedAt);
+    }
+}
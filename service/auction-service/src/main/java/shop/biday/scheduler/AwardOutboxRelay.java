@@ -0,0 +1,248 @@
+package shop.biday.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.entity.AwardOutboxEntity;
+import shop.biday.model.repository.AwardOutboxRepository;
+import shop.biday.utils.JdbcExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * award_outbox 에 쌓인 낙찰 이벤트를 Redis Stream(auction.outbox.stream) 으로 내보낸다.
+ * id 순으로 batch-size 개씩 선점해 스크립트 한 번으로 순서대로 XADD 한 뒤 publishedAt 을 채우고, 가득 찬 batch 였다면 바로 다음 batch 를 읽는다.
+ * 선점은 FOR UPDATE SKIP LOCKED 로 읽은 행에 claimedUntil(지금 + claim-lease-ms)을 남기는 것이라 노드끼리 같은 행을 나누지 않고,
+ * 선점한 노드가 죽으면 lease 가 지난 뒤 다른 노드가 다시 보낸다.
+ * XADD 뒤 표시 전에 실패하면 다시 보내므로 전달은 at-least-once 이며, 소비하는 쪽은 eventId 로 중복을 거른다.
+ * Stream 은 consumer group 이 있으면 가장 느린 group 이 아직 ack 하지 않은(또는 받지 않은) 첫 id 앞까지만 지운다(XTRIM MINID).
+ * group 이 하나도 없으면 ack 를 알 수 없으므로 stream-max-length 로 자르고, 그 길이보다 뒤처진 소비자는 잘린 이벤트를 잃는다.
+ * 소비하는 서비스가 붙기 전에 이벤트가 길이로 잘려 사라지지 않도록 auction.outbox.consumer-group 을 지정하면 시작할 때 그 group 을 만들어 둔다.
+ * 소비하는 쪽이 준비될 때까지는 auction.outbox.relay.enabled 를 켜지 않으며, 그 동안 이벤트는 award_outbox 에 남는다.
+ * 내보낸 행은 retention-ms 가 지나면 지운다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.outbox.relay.enabled", havingValue = "true")
+public class AwardOutboxRelay {
+
+    // 가장 오래된 미확인 id 앞까지 지운다. ~ 로 두어 노드 단위로만 지워 비용을 줄인다.
+    private static final RedisScript<Long> TRIM_MIN_ID_SCRIPT = RedisScript.of(
+            "return redis.call('XTRIM', KEYS[1], 'MINID', '~', ARGV[1])", Long.class);
+
+    // 한 batch 의 이벤트를 한 번에 순서대로 XADD 한다. ARGV[1] 은 이벤트 하나의 인자 수(필드 이름과 값)다.
+    private static final RedisScript<Long> ADD_BATCH_SCRIPT = RedisScript.of("""
+            local width = tonumber(ARGV[1])
+            local added = 0
+            for i = 2, #ARGV, width do
+                redis.call('XADD', KEYS[1], '*', unpack(ARGV, i, i + width - 1))
+                added = added + 1
+            end
+            return added
+            """, Long.class);
+
+    private final AwardOutboxRepository awardOutboxRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final JdbcExecutor jdbcExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Counter publishedCounter;
+    private final String streamKey;
+    private final String consumerGroup;
+    private final long maxLength;
+    private final int batchSize;
+    private final Duration interval;
+    private final Duration cleanupInterval;
+    private final Duration retention;
+    private final Duration claimLease;
+
+    private Disposable subscription = Disposables.disposed();
+
+    public AwardOutboxRelay(AwardOutboxRepository awardOutboxRepository,
+                            ReactiveStringRedisTemplate redisTemplate,
+                            JdbcExecutor jdbcExecutor,
+                            PlatformTransactionManager transactionManager,
+                            AuctionCloseShards auctionCloseShards,
+                            MeterRegistry meterRegistry,
+                            @Value("${auction.outbox.stream:auction:awards}") String streamKey,
+                            @Value("${auction.outbox.stream-max-length:100000}") long maxLength,
+                            @Value("${auction.outbox.relay.batch-size:100}") int batchSize,
+                            @Value("${auction.outbox.relay.interval-ms:1000}") long intervalMillis,
+                            @Value("${auction.outbox.cleanup-interval-ms:3600000}") long cleanupIntervalMillis,
+                            @Value("${auction.outbox.retention-ms:86400000}") long retentionMillis,
+                            @Value("${auction.outbox.relay.claim-lease-ms:30000}") long claimLeaseMillis,
+                            @Value("${auction.outbox.consumer-group:}") String consumerGroup) {
+        this.awardOutboxRepository = awardOutboxRepository;
+        this.redisTemplate = redisTemplate;
+        this.jdbcExecutor = jdbcExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = auctionCloseShards.nodeId();
+        this.publishedCounter = meterRegistry.counter("auction.outbox.published");
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+        this.batchSize = batchSize;
+        this.interval = Duration.ofMillis(intervalMillis);
+        this.cleanupInterval = Duration.ofMillis(cleanupIntervalMillis);
+        this.retention = Duration.ofMillis(retentionMillis);
+        this.claimLease = Duration.ofMillis(claimLeaseMillis);
+        this.consumerGroup = consumerGroup;
+    }
+
+    @PostConstruct
+    public void start() {
+        Disposable relay = ensureGroup()
+                .thenMany(Flux.interval(interval, interval))
+                .onBackpressureDrop()
+                .concatMap(tick -> relay()
+                        .onErrorResume(e -> {
+                            log.error("낙찰 이벤트 전송 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+        Disposable cleanup = Flux.interval(cleanupInterval, cleanupInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> cleanup()
+                        .onErrorResume(e -> {
+                            log.error("낙찰 이벤트 정리 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+        subscription = Disposables.composite(relay, cleanup);
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    public Mono<Long> relay() {
+        return relayBatch()
+                .expand(sent -> sent == batchSize ? relayBatch() : Mono.empty())
+                .reduce(0L, Long::sum)
+                .filter(sent -> sent > 0)
+                .flatMap(sent -> trim()
+                        .onErrorResume(e -> {
+                            log.warn("낙찰 이벤트 stream 정리 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(sent))
+                .doOnNext(sent -> log.debug("낙찰 이벤트 전송 완료 count: {}", sent));
+    }
+
+    private Mono<Long> relayBatch() {
+        return jdbcExecutor.call(this::claim)
+                .flatMap(events -> events.isEmpty()
+                        ? Mono.just(0L)
+                        : add(events)
+                        .then(jdbcExecutor.call(() -> awardOutboxRepository.markPublished(
+                                events.stream().map(AwardOutboxEntity::getId).toList(), LocalDateTime.now())))
+                        .map(marked -> {
+                            publishedCounter.increment(events.size());
+                            return (long) events.size();
+                        }));
+    }
+
+    /**
+     * auction.outbox.consumer-group 이 있으면 stream 과 group 을 만든다. 이미 있으면 그대로 둔다.
+     */
+    public Mono<Boolean> ensureGroup() {
+        if (consumerGroup.isBlank()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.opsForStream().createGroup(streamKey, ReadOffset.from("0-0"), consumerGroup)
+                .doOnNext(created -> log.info("낙찰 이벤트 consumer group 생성 stream: {}, group: {}", streamKey, consumerGroup))
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    // 이미 있는 group 이면 BUSYGROUP 으로 실패한다.
+                    if (!String.valueOf(e.getMessage()).contains("BUSYGROUP")
+                            && (e.getCause() == null || !String.valueOf(e.getCause().getMessage()).contains("BUSYGROUP"))) {
+                        log.warn("낙찰 이벤트 consumer group 생성 실패 group: {}, {}", consumerGroup, e.getMessage());
+                    }
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Long> add(List<AwardOutboxEntity> events) {
+        List<Map<String, String>> fields = events.stream().map(this::toFields).toList();
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(fields.get(0).size() * 2));
+        fields.forEach(event -> event.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        }));
+        return redisTemplate.execute(ADD_BATCH_SCRIPT, List.of(streamKey), args).next();
+    }
+
+    private List<AwardOutboxEntity> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<AwardOutboxEntity> events = awardOutboxRepository.findClaimable(now, PageRequest.of(0, batchSize));
+            events.forEach(event -> {
+                event.setClaimedBy(nodeId);
+                event.setClaimedUntil(now.plus(claimLease));
+            });
+            return events;
+        });
+    }
+
+    /**
+     * consumer group 마다 아직 ack 하지 않은 가장 작은 id(없으면 마지막으로 전달한 id 다음)를 구해 그중 가장 작은 id 앞까지 지운다.
+     */
+    public Mono<Long> trim() {
+        return redisTemplate.opsForStream().groups(streamKey)
+                .concatMap(group -> group.pendingCount() > 0
+                        ? redisTemplate.opsForStream().pending(streamKey, group.groupName())
+                        .map(pending -> RecordId.of(pending.minMessageId()))
+                        : Mono.just(next(RecordId.of(group.lastDeliveredId()))))
+                .reduce((left, right) -> compare(left, right) <= 0 ? left : right)
+                .flatMap(minId -> redisTemplate.execute(TRIM_MIN_ID_SCRIPT, List.of(streamKey), List.of(minId.getValue()))
+                        .next())
+                .switchIfEmpty(Mono.defer(() -> redisTemplate.opsForStream().trim(streamKey, maxLength, true)));
+    }
+
+    private static RecordId next(RecordId id) {
+        return RecordId.of(id.getTimestamp(), id.getSequence() + 1);
+    }
+
+    private static int compare(RecordId left, RecordId right) {
+        int byTimestamp = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return byTimestamp != 0 ? byTimestamp : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    private Mono<Integer> cleanup() {
+        return jdbcExecutor.call(() -> awardOutboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)))
+                .doOnNext(deleted -> log.info("전송된 낙찰 이벤트 정리 count: {}", deleted));
+    }
+
+    private Map<String, String> toFields(AwardOutboxEntity event) {
+        return Map.of(
+                "eventId", String.valueOf(event.getId()),
+                "eventType", event.getEventType(),
+                "awardId", String.valueOf(event.getAwardId()),
+                "auctionId", String.valueOf(event.getAuctionId()),
+                "userId", event.getUserId(),
+                "currentBid", event.getCurrentBid().toString(),
+                "bidedAt", event.getBidedAt().toString(),
+                "createdAt", String.valueOf(event.getCreatedAt()));
+    }
+}
@@ -0,0 +1,47 @@
+package shop.biday.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import shop.biday.model.repository.BidRepository;
+
+/**
+ * 기존 입찰 금액을 Decimal128 에서 int64 로 바꾸는 일회성 작업. (auction.bid.storage.migrate=true)
+ * auction.bid.storage.int64=true 로 새 입찰도 int64 로 저장할 때만 실행하며, 전후의 bids 크기를 남겨 비교할 수 있게 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.bid.storage.migrate", havingValue = "true")
+public class BidAmountMigration {
+
+    private final BidRepository bidRepository;
+    private final boolean int64Storage;
+    private final int batchSize;
+
+    public BidAmountMigration(BidRepository bidRepository,
+                              @Value("${auction.bid.storage.int64:false}") boolean int64Storage,
+                              @Value("${auction.bid.storage.migrate-batch-size:1000}") int batchSize) {
+        this.bidRepository = bidRepository;
+        this.int64Storage = int64Storage;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!int64Storage) {
+            log.warn("auction.bid.storage.int64=false 이므로 입찰 금액 변환을 건너뜁니다.");
+            return;
+        }
+
+        bidRepository.findStorageStats()
+                .doOnNext(stats -> log.info("입찰 금액 변환 시작 {}", stats))
+                .then(bidRepository.convertAmountsToInt64(batchSize))
+                .doOnNext(converted -> log.info("입찰 금액 변환 문서 수: {}", converted))
+                .then(bidRepository.findStorageStats())
+                .subscribe(stats -> log.info("입찰 금액 변환 완료 {}", stats),
+                        e -> log.error("입찰 금액 변환 실패: {}", e.getMessage()));
+    }
+}
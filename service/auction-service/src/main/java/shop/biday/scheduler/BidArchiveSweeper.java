@@ -0,0 +1,101 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.dto.ClosedAuction;
+import shop.biday.service.AuctionService;
+import shop.biday.service.BidArchiveService;
+import shop.biday.utils.JdbcExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 종료 처리가 끝난(closedAt) 경매를 종료 순서대로 훑어 아직 보관되지 않은 입찰을 bid_archives 로 옮긴다.
+ * BidArchiveService.scheduleArchive 는 메모리에서 delay-ms 를 기다리므로 그 사이 노드가 재시작되면 보관이 빠진다.
+ * 커서는 메모리에만 두고 기동하면 lookback-ms 전부터 다시 훑는다. 이미 보관된 경매는 bucket 0 확인만 하고 넘어간다.
+ * 보관에 실패하면 커서를 그 경매 앞에 두고 다음 주기에 다시 시도한다.
+ * 노드마다 AuctionCloseShards 가 맡긴 경매만 보관하고, 종료한 노드의 scheduleArchive 와 겹치는 경우는 BidArchiveService 의 선점이 막는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.bid.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BidArchiveSweeper {
+
+    private final AuctionService auctionService;
+    private final BidArchiveService bidArchiveService;
+    private final AuctionCloseShards auctionCloseShards;
+    private final JdbcExecutor jdbcExecutor;
+    private final Duration interval;
+    private final Duration delay;
+    private final int batchSize;
+
+    private volatile ClosedAuction cursor;
+    private Disposable subscription = Disposables.disposed();
+
+    public BidArchiveSweeper(AuctionService auctionService,
+                             BidArchiveService bidArchiveService,
+                             AuctionCloseShards auctionCloseShards,
+                             JdbcExecutor jdbcExecutor,
+                             @Value("${auction.bid.archive.sweep.interval-ms:300000}") long intervalMillis,
+                             @Value("${auction.bid.archive.sweep.lookback-ms:604800000}") long lookbackMillis,
+                             @Value("${auction.bid.archive.delay-ms:60000}") long delayMillis,
+                             @Value("${auction.bid.archive.sweep.batch-size:200}") int batchSize) {
+        this.auctionService = auctionService;
+        this.bidArchiveService = bidArchiveService;
+        this.auctionCloseShards = auctionCloseShards;
+        this.jdbcExecutor = jdbcExecutor;
+        this.interval = Duration.ofMillis(intervalMillis);
+        this.delay = Duration.ofMillis(delayMillis);
+        this.batchSize = batchSize;
+        this.cursor = new ClosedAuction(0L, LocalDateTime.now().minus(Duration.ofMillis(lookbackMillis)));
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(e -> {
+                            log.error("입찰 보관 확인 실패 cursor: {}, {}", cursor, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    public Mono<Long> sweep() {
+        // scheduleArchive 가 먼저 처리하도록 delay-ms 가 지난 경매만 본다.
+        LocalDateTime before = LocalDateTime.now().minus(delay);
+        return sweepBatch(before)
+                .expand(swept -> swept == batchSize ? sweepBatch(before) : Mono.empty())
+                .reduce(0L, Long::sum)
+                .doOnNext(swept -> log.debug("입찰 보관 확인 count: {}, cursor: {}", swept, cursor));
+    }
+
+    private Mono<Long> sweepBatch(LocalDateTime before) {
+        return jdbcExecutor.call(() -> auctionService.findClosedAfter(cursor, before, batchSize))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(auction -> (auctionCloseShards.owns(auction.id()) ? bidArchiveService.archive(auction.id()) : Mono.just(0L))
+                        .doOnNext(archived -> {
+                            if (archived > 0) {
+                                log.info("보관되지 않은 입찰 보관 auctionId: {}, bids: {}", auction.id(), archived);
+                            }
+                        })
+                        .thenReturn(auction))
+                .doOnNext(auction -> cursor = auction)
+                .count();
+    }
+}
@@ -0,0 +1,90 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.document.AuctionStateDocument;
+import shop.biday.model.repository.BidRepository;
+import shop.biday.service.BidArchiveService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * auction_states 의 입찰 수 카운터를 bids 컬렉션과 대조한다.
+ * 마지막 입찰 후 grace-ms 가 지난 경매만 검사하고, 다르면 bids 기준으로 고친 뒤 검증 시각을 남긴다.
+ * 카운터가 생기기 전에 만들어진 상태도 여기서 counts 를 채운다.
+ */
+@Slf4j
+@Component
+public class BidCounterReconciler {
+
+    private final BidRepository bidRepository;
+    private final BidArchiveService bidArchiveService;
+    private final Duration interval;
+    private final Duration grace;
+    private final int concurrency;
+
+    private Disposable subscription = Disposables.disposed();
+
+    public BidCounterReconciler(BidRepository bidRepository,
+                                BidArchiveService bidArchiveService,
+                                @Value("${auction.bid.counter.reconcile.interval-ms:600000}") long intervalMillis,
+                                @Value("${auction.bid.counter.reconcile.grace-ms:60000}") long graceMillis,
+                                @Value("${auction.bid.counter.reconcile.concurrency:4}") int concurrency) {
+        this.bidRepository = bidRepository;
+        this.bidArchiveService = bidArchiveService;
+        this.interval = Duration.ofMillis(intervalMillis);
+        this.grace = Duration.ofMillis(graceMillis);
+        this.concurrency = concurrency;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcile()
+                        .onErrorResume(e -> {
+                            log.error("입찰 수 검증 실패: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+    }
+
+    public Mono<Long> reconcile() {
+        // 보관된 경매는 bids 에 입찰이 남아 있지 않으므로 대조하지 않고 검증된 것으로만 표시한다.
+        return bidRepository.findUnreconciledAuctionStates(LocalDateTime.now().minus(grace))
+                .flatMap(state -> bidArchiveService.isArchived(state.getAuctionId())
+                        .flatMap(archived -> archived
+                                ? bidRepository.markReconciled(state).thenReturn(false)
+                                : reconcile(state)), concurrency)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(fixed -> log.info("입찰 수 검증 완료 수정된 경매: {}", fixed));
+    }
+
+    private Mono<Boolean> reconcile(AuctionStateDocument state) {
+        return bidRepository.countByAuctionIdGroupByUserId(state.getAuctionId())
+                .flatMap(counts -> {
+                    long total = counts.values().stream().mapToLong(Long::longValue).sum();
+                    boolean mismatch = !Objects.equals(state.getCount(), total) || !counts.equals(state.getCounts());
+                    if (mismatch) {
+                        log.warn("입찰 수 불일치 auctionId: {}, count: {} -> {}", state.getAuctionId(), state.getCount(), total);
+                    }
+                    return bidRepository.reconcileAuctionState(state, counts)
+                            .map(updated -> updated && mismatch);
+                });
+    }
+}
@@ -4,66 +4,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import shop.biday.controller.BidController;
-import shop.biday.model.document.BidDocument;
-import shop.biday.model.entity.AuctionEntity;
-import shop.biday.model.entity.AwardEntity;
-import shop.biday.service.AuctionService;
-import shop.biday.service.AwardService;
-import shop.biday.service.BidService;
 
 @Slf4j
 @Component
 public class QuartzJob implements Job {
 
     @Autowired
-    private AuctionService auctionService;
-    @Autowired
-    private BidController bidController;
-    @Autowired
-    private BidService bidService;
-    @Autowired
-    private AwardService awardService;
+    private AuctionClosePipeline auctionClosePipeline;
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
-        JobDataMap jobDataMap = context.getJobDetail().getJobDataMap();
-        log.info("auctionEnds jobDataMap: {}", jobDataMap.toString());
-        int executeCount = (int) jobDataMap.get("executeCount");
-        jobDataMap.put("executeCount", ++executeCount);
+        // 재시도 Trigger 는 executeCount 를 Trigger 쪽에 실으므로 병합된 값을 읽는다.
+        JobDataMap jobDataMap = context.getMergedJobDataMap();
+        log.info("auctionEnds jobDataMap: {}", jobDataMap.getWrappedMap());
 
         long auctionId = jobDataMap.getLong("auctionId");
+        // 재시도이거나 죽은 노드에서 넘겨받은 Job 이면 이전 시도가 status 만 바꾸고 멈췄을 수 있다.
+        boolean recovering = context.isRecovering() || jobDataMap.getInt("executeCount") > 1;
 
-        AuctionEntity auctionEntity = auctionService.updateState(auctionId);
-
-        BidDocument findTopBid = bidService.findTopBidByAuctionId(auctionId).block();
-        log.info("SchedulerJob findTopBid: {}", findTopBid);
-        if (findTopBid == null) {
-            log.info("입찰자가 없습니다.");
-            bidController.sinkClose(auctionId);
-            TriggerKey triggerKey = context.getTrigger().getKey();
-            try {
-                context.getScheduler().unscheduleJob(triggerKey);
-            } catch (SchedulerException e) {
-                e.printStackTrace();
-            }
-            return;
+        if (!auctionClosePipeline.enqueue(auctionId, recovering)) {
+            throw new JobExecutionException("경매 종료 요청을 추가할 수 없습니다. auctionId: " + auctionId);
         }
-
-        Long count = bidService.countBidByAuctionIdAndUserId(auctionId, findTopBid.getUserId()).block();
-        log.info("SchedulerJob count: {}", count);
-
-        Boolean updatedAward = bidService.updateAward(auctionId).block();
-        log.info("SchedulerJob updatedAward: {}", updatedAward);
-
-        awardService.save(AwardEntity.builder()
-                .auction(auctionEntity)
-                .userId(findTopBid.getUserId())
-                .bidedAt(findTopBid.getBidedAt())
-                .currentBid(findTopBid.getCurrentBid())
-                .count(count)
-                .build());
-
-        bidController.sinkClose(auctionId);
     }
 }
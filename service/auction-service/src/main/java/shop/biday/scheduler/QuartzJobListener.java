@@ -1,15 +1,42 @@
 package shop.biday.scheduler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
+import shop.biday.service.AuctionCloseDeadLetterService;
 
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 실패한 경매 종료 Job 을 지수 백오프(base-ms * 2^(시도-1), 최대 max-ms)에 jitter 를 더한 시각으로 다시 예약한다.
+ * 바로 다시 실행하면 Mongo 가 잠깐 내려간 동안 재시도를 한꺼번에 소진하므로, 대기 시간의 절반 이상은 무작위로 흩는다.
+ * max-attempts 를 넘기면 더 예약하지 않고 dead letter 로 남긴다.
+ */
 @Slf4j
 @Component
 public class QuartzJobListener implements JobListener {
 
-    private static final int MAX_RETRIES = 5;
+    private static final String ATTEMPT_KEY = "executeCount";
+
+    private final AuctionCloseDeadLetterService deadLetterService;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public QuartzJobListener(@Lazy AuctionCloseDeadLetterService deadLetterService,
+                             @Value("${auction.close.retry.max-attempts:5}") int maxAttempts,
+                             @Value("${auction.close.retry.base-ms:1000}") long baseDelayMillis,
+                             @Value("${auction.close.retry.max-ms:300000}") long maxDelayMillis) {
+        this.deadLetterService = deadLetterService;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
 
     @Override
     public String getName() {
@@ -28,25 +55,44 @@ public class QuartzJobListener implements JobListener {
 
     @Override
     public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
-        if (!ObjectUtils.isEmpty(jobException)) {
-            JobKey jobKey = context.getJobDetail().getKey();
-            int executeCount = context.getMergedJobDataMap().getInt("executeCount");
-            log.warn("Job {} 실패. 재시도 {}/{}", jobKey, executeCount + 1, MAX_RETRIES);
-
-            try {
-                if (executeCount < MAX_RETRIES) {
-                    context.getMergedJobDataMap().put("executeCount", ++executeCount);
-                    context.getScheduler().triggerJob(jobKey, context.getJobDetail().getJobDataMap());
-                } else {
-                    TriggerKey triggerKey = context.getTrigger().getKey();
-                    context.getScheduler().unscheduleJob(triggerKey);
-                }
-            } catch (SchedulerException e) {
-                e.printStackTrace();
-                log.error("Job 재시도 실패: ", e.getMessage());
-            }
-        } else {
+        if (ObjectUtils.isEmpty(jobException)) {
             log.info("JOB 수행 완료 후: {}", context.getJobDetail().getKey());
+            return;
         }
+
+        JobKey jobKey = context.getJobDetail().getKey();
+        long auctionId = context.getMergedJobDataMap().getLong("auctionId");
+        // 시도 횟수는 재시도 Trigger 의 JobDataMap 에 실리므로 병합된 값을 읽는다.
+        int attempt = context.getMergedJobDataMap().getInt(ATTEMPT_KEY);
+
+        if (attempt >= maxAttempts) {
+            log.error("Job {} 재시도 소진 {}/{}", jobKey, attempt, maxAttempts);
+            deadLetterService.record(auctionId, "quartz", attempt, jobException.getMessage());
+            return;
+        }
+
+        long delay = backoff(attempt);
+        log.warn("Job {} 실패. {}ms 후 재시도 {}/{}", jobKey, delay, attempt + 1, maxAttempts);
+        try {
+            context.getScheduler().scheduleJob(TriggerBuilder.newTrigger()
+                    .withIdentity(StringUtils.joinWith("_", "AuctionEndsRetryTrigger", auctionId, attempt + 1))
+                    .withDescription("경매 종료 처리 재시도 Trigger")
+                    .forJob(jobKey)
+                    .usingJobData(ATTEMPT_KEY, attempt + 1)
+                    .startAt(new Date(System.currentTimeMillis() + delay))
+                    .build());
+        } catch (SchedulerException e) {
+            log.error("Job 재시도 예약 실패: {}", e.getMessage(), e);
+            deadLetterService.record(auctionId, "quartz", attempt, e.getMessage());
+        }
+    }
+
+    /**
+     * equal jitter: 상한의 절반은 보장하고 나머지 절반을 무작위로 고른다.
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
     }
 }
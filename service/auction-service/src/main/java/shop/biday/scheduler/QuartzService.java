@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.quartz.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -13,10 +14,16 @@ import java.util.Date;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class QuartzService {
+@ConditionalOnProperty(name = "auction.close.scheduler", havingValue = "quartz", matchIfMissing = true)
+public class QuartzService implements AuctionEndScheduler {
 
     private final Scheduler scheduler;
 
+    @Override
+    public void schedule(Long auctionId, LocalDateTime endedAt) {
+        createJob(auctionId, endedAt);
+    }
+
     public void createJob(Long auctionId, LocalDateTime endedAt) {
         log.info("SchedulerService createJob auctionId: {}, endedAt: {}", auctionId, endedAt);
         JobDetail jobDetail = buildJobDetail(QuartzJob.class, auctionId, endedAt);
@@ -37,6 +44,21 @@ public class QuartzService {
         }
     }
 
+    /**
+     * 경매 종료 Job 과 재시도 Trigger 를 함께 지운다.
+     */
+    @Override
+    public void cancel(Long auctionId) {
+        JobKey jobKey = JobKey.jobKey(StringUtils.joinWith("_", "AuctionEndsJob", auctionId));
+        try {
+            if (scheduler.deleteJob(jobKey)) {
+                log.info("Job 삭제: {}", jobKey);
+            }
+        } catch (SchedulerException e) {
+            log.error("Job 삭제 실패 {}: {}", jobKey, e.getMessage());
+        }
+    }
+
     private Trigger buildTrigger(Long auctionId, LocalDateTime endedAt) {
         return TriggerBuilder.newTrigger()
                 .withIdentity(StringUtils.joinWith("_", "AuctionEndsTrigger", auctionId))
@@ -58,6 +80,9 @@ public class QuartzService {
                 .withIdentity(StringUtils.joinWith("_", "AuctionEndsJob", auctionId))
                 .withDescription("경매 종료 처리 Job")
                 .usingJobData(jobDataMap)
+                // 실행 중이던 노드가 죽으면 클러스터의 다른 노드가 다시 실행한다.
+                // Job 은 파이프라인에 넣기만 하므로 넣은 뒤 종료 도중 멈춘 경매는 AuctionCloseSweeper 가 다시 처리한다.
+                .requestRecovery(true)
                 .build();
     }
 }
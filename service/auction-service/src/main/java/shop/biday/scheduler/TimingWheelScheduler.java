@@ -0,0 +1,220 @@
+package shop.biday.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.repository.AuctionRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 경매 종료 시각을 메모리의 hashed timing wheel 에 보관하는 스케줄러. (auction.close.scheduler=wheel)
+ * 경매마다 Quartz Job/Trigger 행을 만들지 않으므로 열린 경매 수가 많아도 DB 잠금이 없다.
+ * 상태는 메모리에만 있으므로 기동 시 status = false 인 경매로 다시 채운다.
+ * tick 마다 만기된 경매를 모아 한 번에 AuctionClosePipeline 으로 넘긴다.
+ * 여러 노드에서 돌 때는 AuctionCloseShards 가 정한 담당 노드만 종료하고, 나머지 노드는 takeover-ms 뒤에 다시 확인해
+ * 종료 처리가 끝나지 않았으면(closedAt 도 낙찰도 없으면) 그때의 담당 노드가 recovering 으로 이어서 종료한다.
+ * status 는 낙찰 저장 전에 바뀌므로 넘겨받을지는 status 로 판단하지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auction.close.scheduler", havingValue = "wheel")
+public class TimingWheelScheduler implements AuctionEndScheduler {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Seoul");
+    private static final long RETRY_DELAY_MILLIS = 1000L;
+
+    private final AuctionRepository auctionRepository;
+    private final AuctionClosePipeline auctionClosePipeline;
+    private final AuctionCloseShards auctionCloseShards;
+    private final long tickMillis;
+    private final long takeoverMillis;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final int mask;
+
+    // 등록/재등록은 아무 스레드에서나 들어오고, 버킷은 tick 스레드만 만진다.
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+    // 다른 노드 몫이라 한 번 넘긴 경매. 다시 만기되면 종료 여부를 확인한다.
+    private final Set<Long> standby = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auction-timing-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long startMillis = System.currentTimeMillis();
+    private long tick = 0;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheelScheduler(AuctionRepository auctionRepository,
+                                AuctionClosePipeline auctionClosePipeline,
+                                AuctionCloseShards auctionCloseShards,
+                                @Value("${auction.close.wheel.tick-ms:100}") long tickMillis,
+                                @Value("${auction.close.wheel.size:512}") int wheelSize,
+                                @Value("${auction.close.shard.takeover-ms:30000}") long takeoverMillis) {
+        this.auctionRepository = auctionRepository;
+        this.auctionClosePipeline = auctionClosePipeline;
+        this.auctionCloseShards = auctionCloseShards;
+        this.tickMillis = tickMillis;
+        this.takeoverMillis = takeoverMillis;
+
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<AuctionDto> openAuctions = auctionRepository.findOpenAuctions();
+        openAuctions.forEach(auction -> schedule(auction.getId(), auction.getEndedAt()));
+        log.info("TimingWheel rebuilt open auctions: {}", openAuctions.size());
+
+        executor.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void schedule(Long auctionId, LocalDateTime endedAt) {
+        long deadline = endedAt.atZone(ZONE_ID).toInstant().toEpochMilli();
+        log.info("TimingWheel schedule auctionId: {}, endedAt: {}", auctionId, endedAt);
+        deadlines.put(auctionId, deadline);
+        pending.add(new Timeout(auctionId, deadline));
+    }
+
+    @Override
+    public void cancel(Long auctionId) {
+        log.info("TimingWheel cancel auctionId: {}", auctionId);
+        deadlines.remove(auctionId);
+        standby.remove(auctionId);
+    }
+
+    private void advance() {
+        try {
+            long targetTick = (System.currentTimeMillis() - startMillis) / tickMillis;
+            List<Long> due = new ArrayList<>();
+            while (tick <= targetTick) {
+                transferPending();
+                expire(wheel[(int) (tick & mask)], due);
+                tick++;
+            }
+            fire(due);
+        } catch (Exception e) {
+            log.error("TimingWheel tick 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.max((timeout.deadline - startMillis) / tickMillis, tick);
+            timeout.rounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket, List<Long> due) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                continue;
+            }
+            iterator.remove();
+            // 다시 등록되었거나 취소된 경매의 이전 항목은 버린다.
+            if (deadlines.remove(timeout.auctionId, timeout.deadline)) {
+                due.add(timeout.auctionId);
+            }
+        }
+    }
+
+    private void fire(List<Long> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        log.info("TimingWheel 경매 종료 batch size: {}", due.size());
+        for (Long auctionId : due) {
+            if (standby.remove(auctionId)) {
+                takeOver(auctionId);
+            } else if (auctionCloseShards.owns(auctionId)) {
+                close(auctionId);
+            } else {
+                standby.add(auctionId);
+                retry(auctionId, takeoverMillis);
+            }
+        }
+    }
+
+    private void close(Long auctionId) {
+        close(auctionId, false);
+    }
+
+    private void close(Long auctionId, boolean recovering) {
+        if (!auctionClosePipeline.enqueue(auctionId, recovering)) {
+            retry(auctionId, RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private void takeOver(Long auctionId) {
+        auctionClosePipeline.isFinished(auctionId)
+                .subscribe(finished -> {
+                    if (finished) {
+                        return;
+                    }
+                    if (auctionCloseShards.owns(auctionId)) {
+                        log.warn("담당 노드가 종료하지 않은 경매를 넘겨받습니다. auctionId: {}", auctionId);
+                        close(auctionId, true);
+                    } else {
+                        standby.add(auctionId);
+                        retry(auctionId, takeoverMillis);
+                    }
+                }, e -> {
+                    log.error("경매 종료 여부 확인 실패 auctionId: {}, {}", auctionId, e.getMessage());
+                    standby.add(auctionId);
+                    retry(auctionId, takeoverMillis);
+                });
+    }
+
+    private void retry(Long auctionId, long delayMillis) {
+        long retryAt = System.currentTimeMillis() + delayMillis;
+        deadlines.put(auctionId, retryAt);
+        pending.add(new Timeout(auctionId, retryAt));
+    }
+
+    private static class Timeout {
+        private final Long auctionId;
+        private final long deadline;
+        private long rounds;
+
+        Timeout(Long auctionId, long deadline) {
+            this.auctionId = auctionId;
+            this.deadline = deadline;
+        }
+    }
+}
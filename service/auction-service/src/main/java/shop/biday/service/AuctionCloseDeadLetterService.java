@@ -0,0 +1,17 @@
+package shop.biday.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import shop.biday.model.entity.AuctionCloseDeadLetterEntity;
+
+import java.util.List;
+
+public interface AuctionCloseDeadLetterService {
+
+    void record(Long auctionId, String source, int attempts, String reason);
+
+    ResponseEntity<Slice<AuctionCloseDeadLetterEntity>> findAll(String userInfoHeader, Pageable pageable);
+
+    ResponseEntity<Integer> redrive(String userInfoHeader, List<Long> auctionIds, int limit);
+}
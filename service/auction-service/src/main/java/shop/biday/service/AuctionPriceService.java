@@ -0,0 +1,10 @@
+package shop.biday.service;
+
+import java.math.BigInteger;
+
+public interface AuctionPriceService {
+
+    void record(Long auctionId, BigInteger currentBid);
+
+    void flush();
+}
@@ -6,8 +6,10 @@ import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Mono;
 import shop.biday.model.domain.AuctionModel;
 import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.dto.ClosedAuction;
 import shop.biday.model.entity.AuctionEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AuctionService {
@@ -23,6 +25,14 @@ public interface AuctionService {
 
     ResponseEntity<AuctionEntity> updateState(Long id);
 
+    boolean markClosed(Long id);
+
+    boolean isClosed(Long id);
+
+    List<Long> findClosePending(LocalDateTime from, LocalDateTime to, int limit);
+
+    List<ClosedAuction> findClosedAfter(ClosedAuction cursor, LocalDateTime before, int limit);
+
     boolean existsById(Long id);
 
     ResponseEntity<AuctionEntity> save(String userInfoHeader, AuctionDto auction);
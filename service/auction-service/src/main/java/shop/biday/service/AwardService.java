@@ -3,6 +3,7 @@ package shop.biday.service;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 import shop.biday.model.domain.AwardModel;
 import shop.biday.model.entity.AwardEntity;
 
@@ -17,7 +18,11 @@ public interface AwardService {
 
     AwardEntity save(AwardEntity award);
 
-    ResponseEntity<AwardModel> findByAwardId(String userInfoHeader, Long awardId);
+    List<AwardEntity> saveAll(List<AwardEntity> awards);
+
+    boolean existsByAuctionId(Long auctionId);
+
+    Mono<ResponseEntity<AwardModel>> findByAwardId(String userInfoHeader, Long awardId);
 
     ResponseEntity<Slice<AwardModel>> findByUser(String userInfoHeader, String period, LocalDateTime cursor, Pageable pageable);
 }
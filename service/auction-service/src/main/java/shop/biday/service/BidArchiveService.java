@@ -0,0 +1,16 @@
+package shop.biday.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.document.BidDocument;
+
+public interface BidArchiveService {
+
+    void scheduleArchive(Long auctionId);
+
+    Mono<Long> archive(Long auctionId);
+
+    Mono<Boolean> isArchived(Long auctionId);
+
+    Flux<BidDocument> findHistory(Long auctionId, String cursor);
+}
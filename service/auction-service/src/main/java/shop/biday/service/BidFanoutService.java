@@ -0,0 +1,19 @@
+package shop.biday.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.model.dto.BidResponse;
+
+public interface BidFanoutService {
+
+    Flux<BidResponse> listen(Long auctionId);
+
+    /**
+     * 실시간 구독을 먼저 연결한 뒤 snapshot 을 보내고, snapshot 이후의 입찰만 이어서 보낸다.
+     */
+    Flux<BidResponse> listen(Long auctionId, Mono<BidResponse> snapshot);
+
+    void publish(BidResponse bid);
+
+    boolean close(Long auctionId);
+}
@@ -0,0 +1,8 @@
+package shop.biday.service;
+
+import reactor.core.publisher.Mono;
+
+public interface BidRateLimiter {
+
+    Mono<Boolean> tryAcquire(String userId, Long auctionId);
+}
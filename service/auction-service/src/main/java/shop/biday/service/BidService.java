@@ -1,14 +1,21 @@
 package shop.biday.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import shop.biday.model.document.BidDocument;
 import shop.biday.model.domain.BidModel;
+import shop.biday.model.domain.UserInfoModel;
+import shop.biday.model.dto.BidHistoryResponse;
 import shop.biday.model.dto.BidResponse;
 
 public interface BidService {
 
     Mono<BidResponse> save(String userInfo, BidModel bid);
 
+    Mono<BidResponse> save(UserInfoModel userInfo, BidModel bid);
+
     Mono<BidDocument> findTopBidByAuctionId(Long auctionId);
 
     Mono<Boolean> updateAward(Long auctionId);
@@ -16,4 +23,8 @@ public interface BidService {
     Mono<Long> countBidByAuctionIdAndUserId(Long auctionId, String userId);
 
     Mono<Long> countByAuctionId(Long auctionId);
+
+    Mono<Slice<BidHistoryResponse>> findHistory(Long auctionId, String cursor, Pageable pageable);
+
+    Flux<BidHistoryResponse> streamHistory(Long auctionId, String cursor);
 }
@@ -0,0 +1,9 @@
+package shop.biday.service;
+
+import reactor.core.publisher.Mono;
+import shop.biday.model.document.BidDocument;
+
+public interface BidWriteService {
+
+    Mono<BidDocument> write(BidDocument bid);
+}
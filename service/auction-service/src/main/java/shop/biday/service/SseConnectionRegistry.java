@@ -0,0 +1,10 @@
+package shop.biday.service;
+
+public interface SseConnectionRegistry {
+
+    boolean tryOpen(Long auctionId);
+
+    void close(Long auctionId);
+
+    int connections();
+}
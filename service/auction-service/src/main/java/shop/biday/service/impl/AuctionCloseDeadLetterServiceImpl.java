@@ -0,0 +1,98 @@
+package shop.biday.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import shop.biday.model.domain.UserInfoModel;
+import shop.biday.model.entity.AuctionCloseDeadLetterEntity;
+import shop.biday.model.repository.AuctionCloseDeadLetterRepository;
+import shop.biday.scheduler.AuctionClosePipeline;
+import shop.biday.service.AuctionCloseDeadLetterService;
+import shop.biday.utils.UserInfoUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 종료 처리에 실패한 경매를 auction_close_dead_letters 에 남기고, 관리자가 골라서(또는 오래된 순으로) 다시 종료 처리에 넣는다.
+ * AuctionClosePipeline 도 실패를 여기에 남기므로 순환 참조를 피하려고 파이프라인은 지연 주입한다.
+ */
+@Slf4j
+@Service
+public class AuctionCloseDeadLetterServiceImpl implements AuctionCloseDeadLetterService {
+
+    private static final int MAX_REASON_LENGTH = 1000;
+
+    private final AuctionCloseDeadLetterRepository deadLetterRepository;
+    private final AuctionClosePipeline auctionClosePipeline;
+    private final UserInfoUtils userInfoUtils;
+
+    public AuctionCloseDeadLetterServiceImpl(AuctionCloseDeadLetterRepository deadLetterRepository,
+                                             @Lazy AuctionClosePipeline auctionClosePipeline,
+                                             UserInfoUtils userInfoUtils) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.auctionClosePipeline = auctionClosePipeline;
+        this.userInfoUtils = userInfoUtils;
+    }
+
+    @Override
+    public void record(Long auctionId, String source, int attempts, String reason) {
+        log.error("경매 종료 처리 dead letter 저장 auctionId: {}, source: {}, attempts: {}, reason: {}",
+                auctionId, source, attempts, reason);
+        deadLetterRepository.save(AuctionCloseDeadLetterEntity.builder()
+                .auctionId(auctionId)
+                .source(source)
+                .attempts(attempts)
+                .reason(reason != null && reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason)
+                .build());
+    }
+
+    @Override
+    public ResponseEntity<Slice<AuctionCloseDeadLetterEntity>> findAll(String userInfoHeader, Pageable pageable) {
+        log.info("Find Auction Close Dead Letters");
+        return validateAdmin(userInfoHeader)
+                .map(t -> ResponseEntity.ok(deadLetterRepository.findAllByOrderByFailedAtAsc(pageable)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).body(null)); // 403 반환
+    }
+
+    @Override
+    public ResponseEntity<Integer> redrive(String userInfoHeader, List<Long> auctionIds, int limit) {
+        log.info("Redrive Auction Close Dead Letters: {}", auctionIds);
+        return validateAdmin(userInfoHeader)
+                .map(t -> {
+                    List<AuctionCloseDeadLetterEntity> deadLetters = auctionIds == null || auctionIds.isEmpty()
+                            ? deadLetterRepository.findAllByOrderByFailedAtAsc(PageRequest.of(0, limit)).getContent()
+                            : deadLetterRepository.findAllById(auctionIds);
+
+                    // 다시 실패하면 파이프라인이 새로 남기므로 넣는 데 성공한 행만 지운다.
+                    int redriven = 0;
+                    for (AuctionCloseDeadLetterEntity deadLetter : deadLetters) {
+                        if (!auctionClosePipeline.enqueue(deadLetter.getAuctionId(), true)) {
+                            log.warn("경매 종료 처리 대기열이 가득 차 재처리를 멈춥니다. redriven: {}", redriven);
+                            break;
+                        }
+                        deadLetterRepository.delete(deadLetter);
+                        redriven++;
+                    }
+                    log.info("경매 종료 처리 재처리 요청 count: {}", redriven);
+                    return ResponseEntity.ok(redriven);
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).body(null)); // 403 반환
+    }
+
+    private Optional<String> validateAdmin(String userInfoHeader) {
+        log.info("Validating user: {}", userInfoHeader);
+        UserInfoModel userInfoModel = userInfoUtils.extractUserInfo(userInfoHeader);
+        return Optional.ofNullable(userInfoModel.getUserRole())
+                .filter(t -> t.equalsIgnoreCase("ROLE_ADMIN"))
+                .or(() -> {
+                    log.error("User does not have role ADMIN: {}", userInfoModel.getUserRole());
+                    return Optional.empty();
+                });
+    }
+}
@@ -0,0 +1,104 @@
+package shop.biday.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import shop.biday.cache.OpenAuctionIndex;
+import shop.biday.service.AuctionPriceService;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 경매별 최고 입찰가를 auctions.current_bid 에 write-behind 로 반영한다.
+ * 입찰마다 행을 갱신하지 않고 경매별 최신 최고가만 메모리에 모아 두었다가,
+ * interval-ms 마다 바뀐 경매만 JDBC batch update 한 번으로 저장한다.
+ * current_bid 보다 큰 값일 때만 갱신하므로 늦게 도착한 값이 최고가를 덮어쓰지 않는다.
+ * 반영한 뒤 OpenAuctionIndex 의 현재가를 바꾼다. 목록 캐시는 비우지 않고 조회할 때 인덱스의 현재가를 덧씌운다.
+ */
+@Slf4j
+@Service
+public class AuctionPriceServiceImpl implements AuctionPriceService {
+
+    private static final String UPDATE_CURRENT_BID =
+            "UPDATE auctions SET current_bid = ? WHERE id = ? AND current_bid < ?";
+
+    private final Map<Long, Long> dirty = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auction-price-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OpenAuctionIndex openAuctionIndex;
+    private final long intervalMillis;
+
+    public AuctionPriceServiceImpl(JdbcTemplate jdbcTemplate,
+                                   OpenAuctionIndex openAuctionIndex,
+                                   @Value("${auction.price.write-behind.interval-ms:300}") long intervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.openAuctionIndex = openAuctionIndex;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        flushQuietly();
+    }
+
+    @Override
+    public void record(Long auctionId, BigInteger currentBid) {
+        dirty.merge(auctionId, currentBid.longValue(), Math::max);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // 꺼내는 사이에 들어온 입찰은 다음 flush 에서 반영된다.
+        List<Object[]> batch = new ArrayList<>(dirty.size());
+        for (Long auctionId : dirty.keySet()) {
+            Long currentBid = dirty.remove(auctionId);
+            if (currentBid != null) {
+                batch.add(new Object[]{currentBid, auctionId, currentBid});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_CURRENT_BID, batch);
+        } catch (RuntimeException e) {
+            // 실패한 값은 다시 넣어 다음 flush 에서 재시도한다.
+            batch.forEach(row -> dirty.merge((Long) row[1], (Long) row[0], Math::max));
+            throw e;
+        }
+
+        batch.forEach(row -> openAuctionIndex.updateCurrentBid((Long) row[1], (Long) row[0]));
+        log.debug("AuctionPriceWriter flushed auctions: {}", batch.size());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("경매 현재가 반영 실패: {}", e.getMessage());
+        }
+    }
+}
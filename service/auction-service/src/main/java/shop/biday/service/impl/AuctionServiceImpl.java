@@ -2,24 +2,35 @@ package shop.biday.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import shop.biday.cache.AuctionListingCache;
+import shop.biday.cache.AuctionListingCache.ListingKey;
+import shop.biday.cache.OpenAuctionIndex;
 import shop.biday.model.domain.AuctionModel;
 import shop.biday.model.domain.UserInfoModel;
 import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.dto.AuctionEvent;
+import shop.biday.model.dto.ClosedAuction;
 import shop.biday.model.entity.AuctionEntity;
+import shop.biday.model.repository.AuctionReadRepository;
 import shop.biday.model.repository.AuctionRepository;
-import shop.biday.scheduler.QuartzService;
+import shop.biday.scheduler.AuctionEndScheduler;
 import shop.biday.service.AuctionService;
 import shop.biday.utils.UserInfoUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -27,8 +38,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuctionServiceImpl implements AuctionService {
     private final AuctionRepository auctionRepository;
-    private final QuartzService quartzService;
+    private final AuctionReadRepository auctionReadRepository;
+    private final AuctionEndScheduler auctionEndScheduler;
     private final UserInfoUtils userInfoUtils;
+    private final AuctionListingCache auctionListingCache;
+    private final OpenAuctionIndex openAuctionIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ResponseEntity<AuctionModel> findById(Long id) {
@@ -43,15 +58,8 @@ public class AuctionServiceImpl implements AuctionService {
 
     @Override
     public Mono<AuctionDto> findByAuctionId(Long auctionId) {
-        return Mono.fromCallable(() -> auctionRepository.findById(auctionId))
-                .subscribeOn(Schedulers.boundedElastic())
-                .map(auctionEntity -> auctionEntity
-                        .map(auction -> AuctionDto.builder()
-                                .id(auction.getId())
-                                .currentBid(auction.getCurrentBid())
-                                .startedAt(auction.getStartedAt())
-                                .build())
-                        .orElseThrow(() -> new IllegalArgumentException("잘못된 요청입니다.")));
+        return auctionReadRepository.findAuction(auctionId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("잘못된 요청입니다.")));
     }
 
     @Override
@@ -63,7 +71,12 @@ public class AuctionServiceImpl implements AuctionService {
     @Override
     public ResponseEntity<Slice<AuctionDto>> findBySize(Long sizeId, String order, Long cursor, Pageable pageable) {
         log.info("Find All Auctions By Time: {} SizeId: {}", order, sizeId);
-        return Optional.of(auctionRepository.findBySize(sizeId, order, cursor, pageable))
+        ListingKey key = new ListingKey("findBySize", sizeId, order, cursor, pageable.getPageSize());
+        Optional<Slice<AuctionDto>> indexed = "종료 임박 순".equals(order)
+                ? openAuctionIndex.findEndingSoon(sizeId, cursor, pageable)
+                : Optional.empty();
+        return indexed
+                .or(() -> Optional.of(withCurrentBids(auctionListingCache.get(key, () -> auctionRepository.findBySize(sizeId, order, cursor, pageable)))))
                 .filter(auctions -> !auctions.isEmpty())
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> {
@@ -75,7 +88,8 @@ public class AuctionServiceImpl implements AuctionService {
     @Override
     public ResponseEntity<List<AuctionDto>> findAllBySize(Long sizeId, String order) {
         log.info("Find All by Size: {} Order: {}", sizeId, order);
-        return Optional.of(auctionRepository.findAllBySize(sizeId, order))
+        ListingKey key = new ListingKey("findAllBySize", sizeId, order, null, 0);
+        return Optional.of(openAuctionIndex.withCurrentBids(auctionListingCache.get(key, () -> auctionRepository.findAllBySize(sizeId, order))))
                 .filter(auctions -> !auctions.isEmpty())
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> {
@@ -105,13 +119,22 @@ public class AuctionServiceImpl implements AuctionService {
                 });
     }
 
+    /**
+     * status 가 false 인 경매만 true 로 바꾼다. 여러 노드가 같은 경매를 종료하려 해도 바꾼 한 곳만 200 을 받고,
+     * 이미 종료된 경매는 409 와 함께 현재 상태를 돌려준다.
+     */
     @Override
+    @Transactional
     public ResponseEntity<AuctionEntity> updateState(Long id) {
         log.info("Update Auction Status by id: {}", id);
+        int updated = auctionRepository.closeIfOpen(id);
         return auctionRepository.findById(id)
                 .map(auction -> {
-                    auction.setStatus(true);
-                    auctionRepository.save(auction);
+                    if (updated == 0) {
+                        log.info("Auction already closed id: {}", id);
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(auction);
+                    }
+                    publish(AuctionEvent.Type.CLOSED, auction, auction.getSizeId());
                     return ResponseEntity.ok(auction);
                 })
                 .orElseGet(() -> {
@@ -120,6 +143,28 @@ public class AuctionServiceImpl implements AuctionService {
                 });
     }
 
+    @Override
+    public boolean markClosed(Long id) {
+        log.info("Mark Auction closed id: {}", id);
+        return auctionRepository.markClosed(id, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    public boolean isClosed(Long id) {
+        // 삭제된 경매도 더 종료할 일이 없으므로 종료된 것으로 본다.
+        return !auctionRepository.existsByIdAndClosedAtIsNull(id);
+    }
+
+    @Override
+    public List<Long> findClosePending(LocalDateTime from, LocalDateTime to, int limit) {
+        return auctionRepository.findClosePending(from, to, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<ClosedAuction> findClosedAfter(ClosedAuction cursor, LocalDateTime before, int limit) {
+        return auctionRepository.findClosedAfter(cursor.closedAt(), cursor.id(), before, PageRequest.of(0, limit));
+    }
+
     @Override
     public ResponseEntity<AuctionEntity> save(String userInfoHeader, AuctionDto auction) {
         log.info("Save Auction started");
@@ -136,7 +181,8 @@ public class AuctionServiceImpl implements AuctionService {
                             .status(false)
                             .build());
 
-                    quartzService.createJob(auctionEntity.getId(), auctionEntity.getEndedAt());
+                    auctionEndScheduler.schedule(auctionEntity.getId(), auctionEntity.getEndedAt());
+                    publish(AuctionEvent.Type.CREATED, auctionEntity, auctionEntity.getSizeId());
                     return ResponseEntity.ok(auctionEntity); // 200 반환
                 })
                 .orElseGet(() -> {
@@ -175,6 +221,10 @@ public class AuctionServiceImpl implements AuctionService {
                             .status(false)
                             .build());
 
+                    if (!Objects.equals(existingAuction.getEndedAt(), auctionEntity.getEndedAt())) {
+                        auctionEndScheduler.reschedule(auctionId, auctionEntity.getEndedAt());
+                    }
+                    publish(AuctionEvent.Type.UPDATED, auctionEntity, existingAuction.getSizeId());
                     log.debug("Update Auction By User for id: {}", auctionId);
                     return ResponseEntity.ok(auctionEntity); // 200 반환
                 })
@@ -201,6 +251,8 @@ public class AuctionServiceImpl implements AuctionService {
                     }
 
                     auctionRepository.deleteById(id);
+                    auctionEndScheduler.cancel(id);
+                    publish(AuctionEvent.Type.DELETED, auction, auction.getSizeId());
                     log.debug("Delete Auction By User for id: {}", id);
                     return ResponseEntity.ok("경매 삭제 성공"); // 200 반환
                 })
@@ -210,6 +262,28 @@ public class AuctionServiceImpl implements AuctionService {
                 });
     }
 
+    private Slice<AuctionDto> withCurrentBids(Slice<AuctionDto> listed) {
+        List<AuctionDto> cached = listed.getContent();
+        List<AuctionDto> content = openAuctionIndex.withCurrentBids(cached);
+        return content == cached ? listed : new SliceImpl<>(content, listed.getPageable(), listed.hasNext());
+    }
+
+    private void publish(AuctionEvent.Type type, AuctionEntity auction, Long previousSizeId) {
+        eventPublisher.publishEvent(new AuctionEvent(type, AuctionDto.builder()
+                .id(auction.getId())
+                .userId(auction.getUserId())
+                .sizeId(auction.getSizeId())
+                .description(auction.getDescription())
+                .startingBid(auction.getStartingBid())
+                .currentBid(auction.getCurrentBid())
+                .startedAt(auction.getStartedAt())
+                .endedAt(auction.getEndedAt())
+                .status(auction.isStatus())
+                .createdAt(auction.getCreatedAt())
+                .updatedAt(auction.getUpdatedAt())
+                .build(), previousSizeId));
+    }
+
     private Optional<String> validateUser(String userInfoHeader) {
         log.info("Validating user: {}", userInfoHeader);
         UserInfoModel userInfoModel = userInfoUtils.extractUserInfo(userInfoHeader);
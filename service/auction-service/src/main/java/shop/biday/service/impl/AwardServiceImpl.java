@@ -7,9 +7,14 @@ import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 import shop.biday.model.domain.AwardModel;
 import shop.biday.model.domain.UserInfoModel;
 import shop.biday.model.entity.AwardEntity;
+import shop.biday.model.entity.AwardOutboxEntity;
+import shop.biday.model.repository.AuctionReadRepository;
+import shop.biday.model.repository.AwardOutboxRepository;
 import shop.biday.model.repository.AwardRepository;
 import shop.biday.service.AwardService;
 import shop.biday.utils.UserInfoUtils;
@@ -24,6 +29,8 @@ import java.util.Optional;
 public class AwardServiceImpl implements AwardService {
 
     private final AwardRepository awardRepository;
+    private final AuctionReadRepository auctionReadRepository;
+    private final AwardOutboxRepository awardOutboxRepository;
     private final UserInfoUtils userInfoUtils;
 
     @Override
@@ -51,34 +58,38 @@ public class AwardServiceImpl implements AwardService {
     }
 
     @Override
-    public ResponseEntity<AwardModel> findByAwardId(String userInfoHeader, Long awardId) {
+    @Transactional
+    public List<AwardEntity> saveAll(List<AwardEntity> awards) {
+        log.info("Saving awards: {}", awards.size());
+        List<AwardEntity> savedAwards = awardRepository.saveAll(awards);
+        // 낙찰과 같은 트랜잭션에 outbox 를 남겨 낙찰이 저장되면 이벤트도 반드시 나가게 한다.
+        awardOutboxRepository.saveAll(savedAwards.stream().map(AwardOutboxEntity::of).toList());
+        log.info("Successfully saved awards: {}", savedAwards.size());
+        return savedAwards;
+    }
+
+    @Override
+    public boolean existsByAuctionId(Long auctionId) {
+        return awardRepository.existsByAuctionId(auctionId);
+    }
+
+    @Override
+    public Mono<ResponseEntity<AwardModel>> findByAwardId(String userInfoHeader, Long awardId) {
         log.info("Find User {} Award by Id: {}", userInfoHeader, awardId);
-        return validateUser(userInfoHeader)
-                .flatMap(uid -> awardRepository.findById(awardId)
-                        .filter(award -> {
-                            boolean isAuthorized = award.getUserId().equals(uid);
-                            if (isAuthorized) {
-                                log.info("User {} is authorized for award id {}", uid, awardId);
-                            } else {
-                                log.warn("User {} is not authorized for award id {}", uid, awardId);
-                            }
-                            return isAuthorized;
-                        })
-                        .map(award -> {
-                            log.info("Award found for User {}: {}", uid, awardId);
-                            return ResponseEntity.ok(awardRepository.findByAwardId(awardId));
-                        }))
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> {
-                    String userId = userInfoUtils.extractUserInfo(userInfoHeader).getUserId();
-                    if (awardRepository.findById(awardId).isPresent()) {
-                        log.error("User {} is not authorized for award id {}", userId, awardId);
-                        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-                    } else {
-                        log.error("Award not found for award id {}", awardId);
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        String uid = validateUser(userInfoHeader).orElse(null);
+        return auctionReadRepository.findAward(awardId)
+                .map(award -> {
+                    if (uid == null || !uid.equals(award.getUserId())) {
+                        log.error("User {} is not authorized for award id {}", uid, awardId);
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).<AwardModel>build();
                     }
-                }).getBody();
+                    log.info("Award found for User {}: {}", uid, awardId);
+                    return ResponseEntity.ok(award);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.error("Award not found for award id {}", awardId);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                }));
     }
 
     @Override
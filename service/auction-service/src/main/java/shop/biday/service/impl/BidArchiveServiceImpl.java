@@ -0,0 +1,173 @@
+package shop.biday.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import shop.biday.exception.BidException;
+import shop.biday.model.document.BidArchiveDocument;
+import shop.biday.model.document.BidArchiveDocument.ArchivedBid;
+import shop.biday.model.document.BidDocument;
+import shop.biday.model.repository.BidArchiveRepository;
+import shop.biday.model.repository.BidRepository;
+import shop.biday.service.BidArchiveService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 종료된 경매의 입찰을 bids 에서 bid_archives 로 옮긴다.
+ * 경매 종료 후 delay-ms 를 기다려 늦게 저장되는 입찰까지 모은 뒤, bucket-size 개씩 묶어 읽는 대로 bucket 1 부터 저장한다.
+ * bucket 0 이 저장되어야 보관이 끝난 것으로 보므로 bucket 0 만 들고 있다가 마지막에 저장하고, 그 뒤에 bids 의 문서를 지운다.
+ * 입찰이 없는 경매도 빈 bucket 0 을 남겨 다시 보관하지 않는다.
+ * 여러 노드가 같은 경매를 동시에 보관하지 않도록 bid_archive_claims 로 claim-lease-ms 동안 선점하고,
+ * 선점한 뒤에도 bucket 0 이 이미 있으면 보관된 것으로 보고 어떤 bucket 도 지우거나 덮어쓰지 않는다.
+ * 선점한 채 중간에 실패했다면 다시 실행할 때 남은 bucket 을 같은 _id 로 덮어쓰고, 이전 실행보다 bucket 이 줄었으면 남은 bucket 을 지운 뒤 bucket 0 을 쓴다.
+ * 메모리의 예약은 재시작하면 사라지므로 BidArchiveSweeper 가 종료된 경매를 다시 훑는다.
+ */
+@Slf4j
+@Service
+public class BidArchiveServiceImpl implements BidArchiveService {
+
+    private final BidRepository bidRepository;
+    private final BidArchiveRepository bidArchiveRepository;
+    private final boolean enabled;
+    private final Duration delay;
+    private final int bucketSize;
+    private final Duration claimLease;
+    private final String owner = UUID.randomUUID().toString();
+
+    public BidArchiveServiceImpl(BidRepository bidRepository,
+                                 BidArchiveRepository bidArchiveRepository,
+                                 @Value("${auction.bid.archive.enabled:true}") boolean enabled,
+                                 @Value("${auction.bid.archive.delay-ms:60000}") long delayMillis,
+                                 @Value("${auction.bid.archive.bucket-size:500}") int bucketSize,
+                                 @Value("${auction.bid.archive.claim-lease-ms:600000}") long claimLeaseMillis) {
+        this.bidRepository = bidRepository;
+        this.bidArchiveRepository = bidArchiveRepository;
+        this.enabled = enabled;
+        this.delay = Duration.ofMillis(delayMillis);
+        this.bucketSize = bucketSize;
+        this.claimLease = Duration.ofMillis(claimLeaseMillis);
+    }
+
+    @Override
+    public void scheduleArchive(Long auctionId) {
+        if (!enabled) {
+            return;
+        }
+        Mono.delay(delay)
+                .then(archive(auctionId))
+                .subscribe(archived -> log.info("입찰 보관 완료 auctionId: {}, bids: {}", auctionId, archived),
+                        e -> log.error("입찰 보관 실패 auctionId: {}, {}", auctionId, e.getMessage()));
+    }
+
+    @Override
+    public Mono<Long> archive(Long auctionId) {
+        return isArchived(auctionId)
+                .flatMap(archived -> archived ? deleteBids(auctionId, 0L) : claimAndWrite(auctionId));
+    }
+
+    @Override
+    public Mono<Boolean> isArchived(Long auctionId) {
+        return bidArchiveRepository.existsById(BidArchiveDocument.id(auctionId, 0));
+    }
+
+    /**
+     * 보관된 입찰을 bucket 순서대로 읽는다. cursor 가 있으면 그 입찰이 든 bucket 부터 읽고 cursor 다음 입찰부터 내보낸다.
+     */
+    @Override
+    public Flux<BidDocument> findHistory(Long auctionId, String cursor) {
+        if (cursor == null) {
+            return bidArchiveRepository.findByAuctionIdAndBucketGreaterThanEqualOrderByBucketAsc(auctionId, 0)
+                    .concatMapIterable(BidArchiveDocument::getBids)
+                    .map(bid -> bid.toBidDocument(auctionId));
+        }
+        return bidArchiveRepository.findFirstByAuctionIdAndBidsBidId(auctionId, cursor)
+                .switchIfEmpty(Mono.error(() -> new BidException(
+                        HttpStatus.BAD_REQUEST, "INVALID_CURSOR", "잘못된 커서입니다.")))
+                .flatMapMany(archive -> bidArchiveRepository.findByAuctionIdAndBucketGreaterThanEqualOrderByBucketAsc(auctionId, archive.getBucket()))
+                .concatMapIterable(BidArchiveDocument::getBids)
+                .skipUntil(bid -> cursor.equals(bid.getBidId()))
+                .skip(1)
+                .map(bid -> bid.toBidDocument(auctionId));
+    }
+
+    private Mono<Long> claimAndWrite(Long auctionId) {
+        LocalDateTime now = LocalDateTime.now();
+        return bidArchiveRepository.claim(auctionId, owner, now, now.plus(claimLease))
+                .flatMap(claimed -> {
+                    if (!claimed) {
+                        log.info("다른 노드가 보관 중인 경매입니다. auctionId: {}", auctionId);
+                        return Mono.just(0L);
+                    }
+                    // 확인과 선점 사이에 다른 노드가 보관을 끝냈을 수 있으므로 다시 확인한다.
+                    return isArchived(auctionId)
+                            .flatMap(archived -> archived ? Mono.just(0L) : writeBuckets(auctionId))
+                            .flatMap(archived -> deleteBids(auctionId, archived))
+                            .flatMap(archived -> release(auctionId).thenReturn(archived))
+                            .onErrorResume(e -> release(auctionId).then(Mono.error(e)));
+                });
+    }
+
+    private Mono<Long> deleteBids(Long auctionId, long archived) {
+        return bidRepository.deleteByAuctionId(auctionId)
+                .doOnNext(deleted -> log.debug("bids 삭제 auctionId: {}, deleted: {}", auctionId, deleted))
+                .thenReturn(archived);
+    }
+
+    private Mono<Boolean> release(Long auctionId) {
+        return bidArchiveRepository.releaseClaim(auctionId, owner)
+                .onErrorResume(e -> {
+                    log.warn("입찰 보관 선점 해제 실패 auctionId: {}, {}", auctionId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Long> writeBuckets(Long auctionId) {
+        LocalDateTime archivedAt = LocalDateTime.now();
+        return bidRepository.findHistory(auctionId, null, 0)
+                .map(ArchivedBid::of)
+                .buffer(bucketSize)
+                .index()
+                // 한 번에 한 bucket 만 메모리에 두도록 하나씩 요청한다.
+                .concatMap(bucket -> bucket.getT1() == 0
+                        ? Mono.just(bucket)
+                        : bidArchiveRepository.save(document(auctionId, bucket.getT1().intValue(), bucket.getT2(), archivedAt))
+                        .thenReturn(bucket), 1)
+                .reduce(Written.EMPTY, Written::add)
+                .flatMap(written -> bidArchiveRepository.deleteByAuctionIdAndBucketGreaterThanEqual(auctionId, Math.max(written.buckets(), 1))
+                        .doOnNext(deleted -> {
+                            if (deleted > 0) {
+                                log.info("이전 보관의 남은 bucket 삭제 auctionId: {}, deleted: {}", auctionId, deleted);
+                            }
+                        })
+                        // bucket 0 은 덮어쓰지 않는다. 이미 있다면 insert 가 실패한다.
+                        .then(bidArchiveRepository.insert(document(auctionId, 0, written.first(), archivedAt)))
+                        .thenReturn(written.bids()));
+    }
+
+    private BidArchiveDocument document(Long auctionId, int bucket, List<ArchivedBid> bids, LocalDateTime archivedAt) {
+        return BidArchiveDocument.builder()
+                .id(BidArchiveDocument.id(auctionId, bucket))
+                .auctionId(auctionId)
+                .bucket(bucket)
+                .bids(bids)
+                .archivedAt(archivedAt)
+                .build();
+    }
+
+    private record Written(List<ArchivedBid> first, int buckets, long bids) {
+
+        private static final Written EMPTY = new Written(List.of(), 0, 0L);
+
+        private Written add(Tuple2<Long, List<ArchivedBid>> bucket) {
+            return new Written(bucket.getT1() == 0 ? bucket.getT2() : first, buckets + 1, bids + bucket.getT2().size());
+        }
+    }
+}
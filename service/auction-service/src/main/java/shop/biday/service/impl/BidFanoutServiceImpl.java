@@ -0,0 +1,237 @@
+package shop.biday.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import shop.biday.model.dto.BidResponse;
+import shop.biday.service.BidFanoutService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 경매별 SSE sink 를 관리하고 입찰을 구독자에게 전달한다.
+ * auction.bid.fanout.redis=true 이면 입찰과 종료 신호를 Redis 채널로 발행하고,
+ * 각 노드는 로컬 구독자가 있는 경매의 채널만 한 번씩 구독해 자신의 sink 로 흘려보낸다.
+ * 구독 해제가 누락되어 남은 sink 는 idle-ms 동안 구독자가 없으면 주기적으로 정리한다.
+ * 구독자마다 따로 버퍼를 두어 느린 구독자는 오래된 입찰을 잃을 뿐 발행하는 쪽을 막지 않는다.
+ */
+@Slf4j
+@Service
+public class BidFanoutServiceImpl implements BidFanoutService {
+
+    private static final String BID_CHANNEL_PREFIX = "auction:bids:";
+    private static final String CLOSE_CHANNEL = "auction:closes";
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    private final ReactiveRedisTemplate<String, BidResponse> bidRedisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final boolean redisEnabled;
+    private final long idleMillis;
+    private final Duration sweepInterval;
+    private final Counter sweptSinks;
+
+    private Disposable closeSubscription = Disposables.disposed();
+    private Disposable sweepSubscription = Disposables.disposed();
+
+    public BidFanoutServiceImpl(ReactiveRedisTemplate<String, BidResponse> bidRedisTemplate,
+                                ObjectProvider<ReactiveRedisMessageListenerContainer> listenerContainer,
+                                MeterRegistry meterRegistry,
+                                @Value("${auction.bid.fanout.redis:${auction.redis.enabled:false}}") boolean redisEnabled,
+                                @Value("${auction.bid.fanout.idle-ms:60000}") long idleMillis,
+                                @Value("${auction.bid.fanout.sweep-interval-ms:30000}") long sweepIntervalMillis) {
+        this.bidRedisTemplate = bidRedisTemplate;
+        this.listenerContainer = listenerContainer.getIfAvailable();
+        this.redisEnabled = redisEnabled && this.listenerContainer != null;
+        this.idleMillis = idleMillis;
+        this.sweepInterval = Duration.ofMillis(sweepIntervalMillis);
+
+        Gauge.builder("auction.sse.sinks", channels, Map::size)
+                .description("경매별 입찰 sink 수")
+                .register(meterRegistry);
+        this.sweptSinks = Counter.builder("auction.sse.sinks.swept")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweepSubscription = Flux.interval(sweepInterval, sweepInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> sweep(), e -> log.error("sink 정리 실패: {}", e.getMessage()));
+        if (redisEnabled) {
+            closeSubscription = receive(CLOSE_CHANNEL)
+                    .subscribe(closed -> closeLocal(closed.getAuctionId()),
+                            e -> log.error("경매 종료 채널 구독 실패: {}", e.getMessage()));
+        }
+    }
+
+    @PreDestroy
+    public void dispose() {
+        closeSubscription.dispose();
+        sweepSubscription.dispose();
+        channels.keySet().forEach(this::closeLocal);
+    }
+
+    @Override
+    public Flux<BidResponse> listen(Long auctionId) {
+        return Flux.defer(() -> {
+            Channel channel = acquire(auctionId);
+            return channel.sink.asFlux()
+                    .onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE,
+                            dropped -> log.debug("느린 구독자의 입찰을 버립니다. auctionId: {}", auctionId),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> release(auctionId, channel));
+        });
+    }
+
+    @Override
+    public Flux<BidResponse> listen(Long auctionId, Mono<BidResponse> snapshot) {
+        return Flux.defer(() -> {
+            // 스냅샷을 읽는 동안 발행된 입찰을 놓치지 않도록 실시간 구독을 먼저 연결해 두고 스냅샷 뒤에 이어 붙인다.
+            ConnectableFlux<BidResponse> live = listen(auctionId).replay(Queues.SMALL_BUFFER_SIZE);
+            Disposable connection = live.connect();
+            return snapshot
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMapMany(top -> Flux.concat(Mono.justOrEmpty(top),
+                            // 받아들여진 입찰은 금액이 계속 오르므로 스냅샷보다 높지 않은 입찰은 스냅샷에 이미 반영된 것이다.
+                            live.filter(bid -> top.map(seen -> isNewer(bid, seen)).orElse(true))))
+                    .doFinally(signal -> connection.dispose());
+        });
+    }
+
+    @Override
+    public void publish(BidResponse bid) {
+        if (redisEnabled) {
+            bidRedisTemplate.convertAndSend(BID_CHANNEL_PREFIX + bid.getAuctionId(), bid)
+                    .subscribe(null, e -> log.error("입찰 발행 실패 auctionId: {}, {}", bid.getAuctionId(), e.getMessage()));
+            return;
+        }
+        emitLocal(bid);
+    }
+
+    @Override
+    public boolean close(Long auctionId) {
+        if (redisEnabled) {
+            bidRedisTemplate.convertAndSend(CLOSE_CHANNEL, BidResponse.builder().auctionId(auctionId).award(true).build())
+                    .subscribe(null, e -> log.error("경매 종료 발행 실패 auctionId: {}, {}", auctionId, e.getMessage()));
+        }
+        return closeLocal(auctionId);
+    }
+
+    private static boolean isNewer(BidResponse bid, BidResponse seen) {
+        return bid.isAward() || seen.getCurrentBid() == null
+                || (bid.getCurrentBid() != null && bid.getCurrentBid().compareTo(seen.getCurrentBid()) > 0);
+    }
+
+    private Channel acquire(Long auctionId) {
+        return channels.compute(auctionId, (id, channel) -> {
+            if (channel == null) {
+                channel = new Channel();
+                if (redisEnabled) {
+                    channel.subscription = receive(BID_CHANNEL_PREFIX + id)
+                            .subscribe(channel::emit, e -> log.error("입찰 채널 구독 실패 auctionId: {}, {}", id, e.getMessage()));
+                }
+            }
+            channel.listeners++;
+            channel.touch();
+            return channel;
+        });
+    }
+
+    private void release(Long auctionId, Channel released) {
+        channels.computeIfPresent(auctionId, (id, channel) -> {
+            if (channel != released || --channel.listeners > 0) {
+                return channel;
+            }
+            channel.subscription.dispose();
+            return null;
+        });
+    }
+
+    private void emitLocal(BidResponse bid) {
+        Channel channel = channels.get(bid.getAuctionId());
+        if (channel != null) {
+            channel.emit(bid);
+        }
+    }
+
+    private boolean closeLocal(Long auctionId) {
+        Channel channel = channels.remove(auctionId);
+        if (channel == null) {
+            return false;
+        }
+        channel.subscription.dispose();
+        channel.sink.tryEmitComplete();
+        return true;
+    }
+
+    /**
+     * 구독자가 하나도 없는 채로 idle-ms 가 지난 sink 를 닫는다.
+     * listeners 는 남아 있는데 실제 구독자가 없다면 구독 해제가 누락된 것이다.
+     */
+    private void sweep() {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        channels.forEach((auctionId, channel) -> {
+            if (channel.sink.currentSubscriberCount() == 0 && channel.lastAccess < idleBefore
+                    && channels.remove(auctionId, channel)) {
+                log.warn("구독자 없는 sink 정리 auctionId: {}, listeners: {}", auctionId, channel.listeners);
+                channel.subscription.dispose();
+                channel.sink.tryEmitComplete();
+                sweptSinks.increment();
+            }
+        });
+    }
+
+    private Flux<BidResponse> receive(String channelName) {
+        RedisSerializationContext<String, BidResponse> context = bidRedisTemplate.getSerializationContext();
+        return listenerContainer.receive(List.of(ChannelTopic.of(channelName)),
+                        context.getKeySerializationPair(), context.getValueSerializationPair())
+                .map(message -> message.getMessage());
+    }
+
+    private static class Channel {
+        // 구독자가 모두 빠져도 sink 가 종료되지 않도록 autoCancel 을 끈다. 정리는 listeners 로 한다.
+        private final Sinks.Many<BidResponse> sink = Sinks.many().multicast()
+                .onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+        private Disposable subscription = Disposables.disposed();
+        private int listeners;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        // 로컬 입찰과 Redis 수신이 동시에 들어올 수 있으므로 직렬화하고, 실패해도 발행하는 쪽으로 예외를 던지지 않는다.
+        synchronized void emit(BidResponse bid) {
+            touch();
+            Sinks.EmitResult result = sink.tryEmitNext(bid);
+            if (result.isFailure()) {
+                // 구독자가 없는 동안 버퍼가 찬 경우(FAIL_OVERFLOW) 등은 버린다. 새 구독자는 스냅샷부터 받는다.
+                log.debug("입찰 전달 실패 auctionId: {}, result: {}", bid.getAuctionId(), result);
+            }
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package shop.biday.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.biday.service.BidRateLimiter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (userId, auctionId) 별, 경매별 입찰 요청 수를 token bucket 으로 제한한다.
+ * bucket 은 다음 토큰이 채워지는 시각(TAT) 하나를 AtomicLong 에 두고 CAS 로 갱신하는 GCRA 방식이라 잠금이 없다.
+ * burst 개까지 한 번에 받고 이후에는 초당 per-second 개씩 채워진다.
+ * auction.bid.rate-limit.redis=true 이면 로컬 검사를 통과한 요청만 Redis 스크립트로 클러스터 전체 한도를 한 번 더 확인한다.
+ */
+@Slf4j
+@Service
+public class BidRateLimiterImpl implements BidRateLimiter {
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local tats = {}
+            for i = 1, #KEYS do
+                local interval = tonumber(ARGV[i * 2 - 1])
+                local tolerance = tonumber(ARGV[i * 2])
+                local tat = math.max(tonumber(redis.call('GET', KEYS[i]) or now), now)
+                if tat - now > tolerance - interval then
+                    return 0
+                end
+                tats[i] = tat + interval
+            end
+            for i = 1, #KEYS do
+                redis.call('SET', KEYS[i], tats[i], 'PX', math.ceil((tats[i] - now) / 1000) + 1)
+            end
+            return 1
+            """, Long.class);
+
+    private final Map<UserKey, Bucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, Bucket> auctionBuckets = new ConcurrentHashMap<>();
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final Limit userLimit;
+    private final Limit auctionLimit;
+    private final Counter rejectedByUser;
+    private final Counter rejectedByAuction;
+    private final Counter rejectedByCluster;
+
+    private Disposable sweepSubscription = Disposables.disposed();
+
+    public BidRateLimiterImpl(ReactiveStringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${auction.bid.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${auction.bid.rate-limit.redis:${auction.redis.enabled:false}}") boolean redisEnabled,
+                              @Value("${auction.bid.rate-limit.user.burst:5}") int userBurst,
+                              @Value("${auction.bid.rate-limit.user.per-second:2}") double userPerSecond,
+                              @Value("${auction.bid.rate-limit.auction.burst:200}") int auctionBurst,
+                              @Value("${auction.bid.rate-limit.auction.per-second:100}") double auctionPerSecond) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.userLimit = Limit.of(userBurst, userPerSecond);
+        this.auctionLimit = Limit.of(auctionBurst, auctionPerSecond);
+        this.rejectedByUser = Counter.builder("auction.bid.rate-limited")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        this.rejectedByAuction = Counter.builder("auction.bid.rate-limited")
+                .tag("scope", "auction")
+                .register(meterRegistry);
+        this.rejectedByCluster = Counter.builder("auction.bid.rate-limited")
+                .tag("scope", "cluster")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration interval = Duration.ofSeconds(30);
+        sweepSubscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .subscribe(tick -> sweep(), e -> log.error("rate limit bucket 정리 실패: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweepSubscription.dispose();
+    }
+
+    @Override
+    public Mono<Boolean> tryAcquire(String userId, Long auctionId) {
+        if (!enabled) {
+            return Mono.just(true);
+        }
+        if (!tryAcquireLocal(userId, auctionId)) {
+            return Mono.just(false);
+        }
+        return redisEnabled ? tryAcquireRedis(userId, auctionId) : Mono.just(true);
+    }
+
+    private boolean tryAcquireLocal(String userId, Long auctionId) {
+        long now = System.nanoTime();
+        Bucket userBucket = userBuckets.computeIfAbsent(new UserKey(userId, auctionId), key -> new Bucket(now));
+        if (!userBucket.tryAcquire(now, userLimit)) {
+            rejectedByUser.increment();
+            return false;
+        }
+        Bucket auctionBucket = auctionBuckets.computeIfAbsent(auctionId, key -> new Bucket(now));
+        if (!auctionBucket.tryAcquire(now, auctionLimit)) {
+            // 경매 한도에 걸린 요청은 사용자 토큰을 돌려준다.
+            userBucket.release(userLimit);
+            rejectedByAuction.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // 두 키가 같은 slot 에 있도록 auctionId 를 hash tag 로 쓴다.
+    private Mono<Boolean> tryAcquireRedis(String userId, Long auctionId) {
+        List<String> keys = List.of("bid:rate:{" + auctionId + "}:user:" + userId, "bid:rate:{" + auctionId + "}");
+        List<String> args = List.of(
+                String.valueOf(TimeUnit.NANOSECONDS.toMicros(userLimit.interval())),
+                String.valueOf(TimeUnit.NANOSECONDS.toMicros(userLimit.tolerance())),
+                String.valueOf(TimeUnit.NANOSECONDS.toMicros(auctionLimit.interval())),
+                String.valueOf(TimeUnit.NANOSECONDS.toMicros(auctionLimit.tolerance())));
+        return redisTemplate.execute(ACQUIRE_SCRIPT, keys, args)
+                .next()
+                .map(result -> result == 1L)
+                .doOnNext(allowed -> {
+                    if (!allowed) {
+                        rejectedByCluster.increment();
+                    }
+                })
+                .onErrorResume(e -> {
+                    // Redis 를 쓸 수 없으면 로컬 한도만으로 판단한다.
+                    log.warn("Redis rate limit 확인 실패 auctionId: {}, {}", auctionId, e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    // TAT 가 지난 bucket 은 가득 찬 bucket 과 같으므로 지워도 결과가 달라지지 않는다.
+    private void sweep() {
+        long now = System.nanoTime();
+        userBuckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+        auctionBuckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+    }
+
+    private record UserKey(String userId, Long auctionId) {
+    }
+
+    private record Limit(long interval, long tolerance) {
+
+        static Limit of(int burst, double perSecond) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            return new Limit(interval, interval * Math.max(burst, 1));
+        }
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong tat;
+
+        Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+
+        boolean tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = tat.get();
+                long base = current - now > 0 ? current : now;
+                if (base - now > limit.tolerance() - limit.interval()) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, base + limit.interval())) {
+                    return true;
+                }
+            }
+        }
+
+        void release(Limit limit) {
+            tat.addAndGet(-limit.interval());
+        }
+
+        boolean isFull(long now) {
+            return tat.get() - now <= 0;
+        }
+    }
+}
@@ -2,16 +2,36 @@ package shop.biday.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import shop.biday.cache.AuctionMetadataCache;
+import shop.biday.cache.AuctionMetadataCache.AuctionMetadata;
+import shop.biday.cache.BidLedger;
+import shop.biday.exception.BidException;
+import shop.biday.model.document.AuctionStateDocument;
 import shop.biday.model.document.BidDocument;
 import shop.biday.model.domain.BidModel;
 import shop.biday.model.domain.UserInfoModel;
+import shop.biday.model.dto.BidHistoryResponse;
 import shop.biday.model.dto.BidResponse;
 import shop.biday.model.repository.BidRepository;
+import shop.biday.service.AuctionPriceService;
+import shop.biday.service.BidArchiveService;
+import shop.biday.service.BidRateLimiter;
 import shop.biday.service.BidService;
+import shop.biday.service.BidWriteService;
 import shop.biday.utils.UserInfoUtils;
 
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -19,55 +39,168 @@ public class BidServiceImpl implements BidService {
 
     private final BidRepository bidRepository;
     private final UserInfoUtils userInfoUtils;
+    private final BidLedger bidLedger;
+    private final BidWriteService bidWriteService;
+    private final AuctionMetadataCache auctionMetadataCache;
+    private final AuctionPriceService auctionPriceService;
+    private final BidArchiveService bidArchiveService;
+    private final BidRateLimiter bidRateLimiter;
+
+    private static final Duration LEDGER_READY_TIMEOUT = Duration.ofSeconds(3);
+    // int64 저장 방식과 auctions.current_bid(BIGINT) 가 담을 수 있는 최대 금액.
+    private static final BigInteger MAX_BID = BigInteger.valueOf(Long.MAX_VALUE);
 
     @Override
     public Mono<BidResponse> save(String userInfo, BidModel bid) {
-        UserInfoModel userInfoModel = userInfoUtils.extractUserInfo(userInfo);
-
-        BidDocument bidDocument = BidDocument.builder()
-                .auctionId(bid.auctionId())
-                .userId(userInfoModel.getUserId())
-                .currentBid(bid.currentBid())
-                .build();
+        return save(userInfoUtils.extractUserInfo(userInfo), bid);
+    }
 
-        return bidRepository.save(bidDocument)
-                .flatMap(savedBid -> bidRepository.findFirstByAuctionIdSorted(bid.auctionId()))
-                .log()
-                .flatMap(findBid -> bidRepository.countByAuctionId(findBid.getAuctionId())
-                        .log()
-                        .map(count -> BidResponse.builder()
-                                .auctionId(findBid.getAuctionId())
-                                .currentBid(findBid.getCurrentBid())
-                                .award(findBid.isAward())
-                                .bidedAt(findBid.getBidedAt())
-                                .count(count)
-                                .build()
-                        )
-                );
+    @Override
+    public Mono<BidResponse> save(UserInfoModel userInfoModel, BidModel bid) {
+        return bidLedger.awaitReady()
+                .timeout(LEDGER_READY_TIMEOUT, Mono.error(() -> new BidException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "NOT_READY", "입찰 준비 중입니다. 잠시 후 다시 시도해주세요.")))
+                .then(bidRateLimiter.tryAcquire(userInfoModel.getUserId(), bid.auctionId()))
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new BidException(
+                        HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED", "입찰 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.")))
+                .flatMap(allowed -> auctionMetadataCache.get(bid.auctionId()))
+                .switchIfEmpty(Mono.error(() -> new BidException(
+                        HttpStatus.NOT_FOUND, "AUCTION_NOT_FOUND", "존재하지 않는 경매입니다.")))
+                .flatMap(auction -> validate(auction, bid))
+                .then(Mono.defer(() -> accept(userInfoModel, bid)));
     }
 
+    /**
+     * 최고가 경쟁을 통과한 입찰만 기록되는 auction_states 에서 낙찰자를 읽는다.
+     * bids 에는 저장 응답이 실패한 입찰이 남을 수 있으므로 상태가 없는(상태가 생기기 전의) 경매만 bids 에서 찾는다.
+     */
     @Override
     public Mono<BidDocument> findTopBidByAuctionId(Long auctionId) {
-        return bidRepository.findFirstByAuctionIdOrderByCurrentBidDescAndBidedAtAsc(auctionId)
-                .next()
+        return bidRepository.findAuctionState(auctionId)
+                .filter(state -> state.getUserId() != null && state.getCurrentBid() != null)
+                .map(state -> BidDocument.builder()
+                        .auctionId(state.getAuctionId())
+                        .userId(state.getUserId())
+                        .currentBid(state.getCurrentBid())
+                        .bidedAt(state.getBidedAt())
+                        .build())
+                .switchIfEmpty(Mono.defer(() -> bidRepository.findFirstByAuctionIdOrderByCurrentBidDescAndBidedAtAsc(auctionId)
+                        .next()))
                 .log();
     }
 
     @Override
     public Mono<Boolean> updateAward(Long auctionId) {
-        return bidRepository.findFirstByAuctionIdOrderByCurrentBidDescAndBidedAtAsc(auctionId)
-                .next()
-                .flatMap(findBid -> bidRepository.updateAward(findBid.getId()))
+        return findTopBidByAuctionId(auctionId)
+                .flatMap(findBid -> bidRepository.updateAward(auctionId, findBid.getUserId(), findBid.getCurrentBid()))
                 .log();
     }
 
     @Override
     public Mono<Long> countBidByAuctionIdAndUserId(Long auctionId, String userId) {
-        return bidRepository.countByAuctionIdAndUserId(auctionId, userId);
+        // counts 가 아직 채워지지 않은 경매(카운터가 생기기 전에 만들어진 상태)는 bids 에서 센다.
+        return bidRepository.findAuctionState(auctionId)
+                .mapNotNull(state -> state.getCount(userId))
+                .switchIfEmpty(Mono.defer(() -> bidRepository.countByAuctionIdAndUserId(auctionId, userId)));
     }
 
     @Override
     public Mono<Long> countByAuctionId(Long auctionId) {
-        return bidRepository.countByAuctionId(auctionId);
+        return bidRepository.findAuctionState(auctionId)
+                .mapNotNull(AuctionStateDocument::getCount)
+                .switchIfEmpty(Mono.defer(() -> bidRepository.countByAuctionId(auctionId)));
+    }
+
+    @Override
+    public Mono<Slice<BidHistoryResponse>> findHistory(Long auctionId, String cursor, Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        return history(auctionId, cursor, pageSize + 1)
+                .map(BidHistoryResponse::of)
+                .collectList()
+                .map(bids -> {
+                    boolean hasNext = bids.size() > pageSize;
+                    if (hasNext) {
+                        bids.remove(pageSize);
+                    }
+                    return (Slice<BidHistoryResponse>) new SliceImpl<>(bids, pageable, hasNext);
+                });
+    }
+
+    @Override
+    public Flux<BidHistoryResponse> streamHistory(Long auctionId, String cursor) {
+        return history(auctionId, cursor, 0)
+                .map(BidHistoryResponse::of);
+    }
+
+    // 보관이 끝난 경매는 bid_archives 에서, 나머지는 bids 에서 같은 순서로 읽는다. limit 이 0 이면 끝까지 읽는다.
+    private Flux<BidDocument> history(Long auctionId, String cursor, int limit) {
+        return bidArchiveService.isArchived(auctionId)
+                .flatMapMany(archived -> {
+                    if (archived) {
+                        Flux<BidDocument> bids = bidArchiveService.findHistory(auctionId, cursor);
+                        return limit > 0 ? bids.take(limit) : bids;
+                    }
+                    return findCursor(auctionId, cursor)
+                            .flatMapMany(after -> bidRepository.findHistory(auctionId, after.orElse(null), limit));
+                });
+    }
+
+    // cursor 는 이전 페이지 마지막 입찰의 id 이고, 그 입찰의 정렬 키 다음부터 읽는다.
+    private Mono<Optional<BidDocument>> findCursor(Long auctionId, String cursor) {
+        if (cursor == null) {
+            return Mono.just(Optional.empty());
+        }
+        return bidRepository.findById(cursor)
+                .filter(bid -> auctionId.equals(bid.getAuctionId()))
+                .map(Optional::of)
+                .switchIfEmpty(Mono.error(() -> new BidException(
+                        HttpStatus.BAD_REQUEST, "INVALID_CURSOR", "잘못된 커서입니다.")));
+    }
+
+    private Mono<Void> validate(AuctionMetadata auction, BidModel bid) {
+        if (!auction.isOpen(LocalDateTime.now())) {
+            return Mono.error(new BidException(HttpStatus.BAD_REQUEST, "AUCTION_NOT_OPEN", "진행 중인 경매가 아닙니다."));
+        }
+        if (bid.currentBid().compareTo(MAX_BID) > 0) {
+            return Mono.error(new BidException(HttpStatus.BAD_REQUEST, "BID_OUT_OF_RANGE", "입찰 가능한 최대 금액을 넘었습니다."));
+        }
+        if (bid.currentBid().compareTo(BigInteger.valueOf(auction.startingBid())) <= 0) {
+            return Mono.error(new BidException(HttpStatus.BAD_REQUEST, "BELOW_STARTING_BID", "경매 시작가보다 높은 금액으로 입찰해주세요."));
+        }
+        if (bidLedger.isOutbid(bid.auctionId(), bid.currentBid())) {
+            return Mono.error(lowBidException());
+        }
+        return Mono.empty();
+    }
+
+    private Mono<BidResponse> accept(UserInfoModel userInfoModel, BidModel bid) {
+        LocalDateTime bidedAt = LocalDateTime.now();
+        BidDocument bidDocument = BidDocument.builder()
+                .auctionId(bid.auctionId())
+                .userId(userInfoModel.getUserId())
+                .currentBid(bid.currentBid())
+                .bidedAt(bidedAt)
+                .createdAt(bidedAt)
+                .build();
+
+        // auction_states 의 조건부 갱신 한 번으로 최고가 경쟁을 하고, 이긴 입찰만 bids 에 기록한다.
+        // 낙찰자는 auction_states 에서 읽으므로 기록이 실패해도 입찰은 받아들여진 것이다.
+        return bidRepository.compareAndSetTopBid(bid.auctionId(), userInfoModel.getUserId(), bid.currentBid(), bidedAt)
+                .switchIfEmpty(Mono.error(this::lowBidException))
+                .flatMap(state -> bidWriteService.write(bidDocument)
+                        .onErrorResume(e -> {
+                            log.error("입찰 기록 저장 실패 auctionId: {}, userId: {}, {}",
+                                    bid.auctionId(), userInfoModel.getUserId(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(state))
+                .map(bidLedger::merge)
+                .doOnNext(response -> auctionPriceService.record(response.getAuctionId(), response.getCurrentBid()))
+                .log();
+    }
+
+    private BidException lowBidException() {
+        return new BidException(HttpStatus.CONFLICT, "LOW_BID", "현재 최고 입찰가보다 높은 금액으로 입찰해주세요.");
     }
 }
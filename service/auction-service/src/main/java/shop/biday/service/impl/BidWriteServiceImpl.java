@@ -0,0 +1,179 @@
+package shop.biday.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import shop.biday.model.document.BidDocument;
+import shop.biday.model.repository.BidRepository;
+import shop.biday.service.BidWriteService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 입찰 문서 저장.
+ * auction.bid.writer.batch.enabled=true 이면 window-ms 동안 또는 size 개까지 모은 입찰을
+ * 순서 없는 insertMany 한 번으로 저장하고, 호출한 쪽에는 입찰마다 저장 결과를 돌려준다.
+ * 한 문서가 실패해도 나머지는 저장되며 실패한 입찰만 오류로 돌려준다.
+ * 최고가 경쟁을 통과한 입찰만 기록하므로 응답을 기다리다 포기한 입찰이 뒤늦게 저장되어도 그대로 둔다.
+ * 저장이 밀리면 bufferTimeout 이 요청 수만큼만 묶어 보내므로 대기열에서 기다리고, 대기열도 가득 차면 바로 저장한다.
+ * 파이프라인이 끝나 버리면 기다리던 입찰을 모두 실패시키고 새 대기열로 다시 시작하며, 응답은 ack-timeout-ms 까지만 기다린다.
+ */
+@Slf4j
+@Service
+public class BidWriteServiceImpl implements BidWriteService {
+
+    private final BidRepository bidRepository;
+    private final boolean batchEnabled;
+    private final int batchSize;
+    private final Duration batchWindow;
+    private final int concurrency;
+    private final int capacity;
+    private final Duration ackTimeout;
+    private final Set<PendingBid> inFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile Sinks.Many<PendingBid> pendingBids;
+    private volatile boolean stopped = false;
+
+    public BidWriteServiceImpl(BidRepository bidRepository,
+                               @Value("${auction.bid.writer.batch.enabled:false}") boolean batchEnabled,
+                               @Value("${auction.bid.writer.batch.size:128}") int batchSize,
+                               @Value("${auction.bid.writer.batch.window-ms:5}") long batchWindowMillis,
+                               @Value("${auction.bid.writer.batch.concurrency:2}") int concurrency,
+                               @Value("${auction.bid.writer.batch.capacity:8192}") int capacity,
+                               @Value("${auction.bid.writer.batch.ack-timeout-ms:5000}") long ackTimeoutMillis) {
+        this.bidRepository = bidRepository;
+        this.batchEnabled = batchEnabled;
+        this.batchSize = batchSize;
+        this.batchWindow = Duration.ofMillis(batchWindowMillis);
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+        this.ackTimeout = Duration.ofMillis(ackTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!batchEnabled) {
+            return;
+        }
+        run();
+        log.info("BidWriter batch mode size: {}, window: {}", batchSize, batchWindow);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (pendingBids != null) {
+            pendingBids.tryEmitComplete();
+        }
+    }
+
+    private synchronized void run() {
+        Sinks.Many<PendingBid> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingBid>get(capacity).get());
+        pendingBids = sink;
+        sink.asFlux()
+                // flush 가 모두 바쁠 때 타이머가 버퍼를 내보내려다 오류로 끝나지 않도록 요청 수에 맞춘다.
+                .bufferTimeout(batchSize, batchWindow, true)
+                .flatMap(this::flush, concurrency)
+                .subscribe(null, e -> restart(sink, e), () -> restart(sink, null));
+    }
+
+    private synchronized void restart(Sinks.Many<PendingBid> terminated, Throwable error) {
+        if (pendingBids != terminated || stopped) {
+            return;
+        }
+        log.error("BidWriter 파이프라인 종료, 다시 시작합니다. {}", error != null ? error.getMessage() : "completed");
+        Throwable cause = error != null ? error : new IllegalStateException("BidWriter 파이프라인이 종료되었습니다.");
+        inFlight.forEach(pendingBid -> fail(pendingBid, cause));
+        run();
+    }
+
+    @Override
+    public Mono<BidDocument> write(BidDocument bid) {
+        if (!batchEnabled) {
+            return bidRepository.save(bid);
+        }
+
+        PendingBid pendingBid = new PendingBid(identify(bid), Sinks.one());
+        inFlight.add(pendingBid);
+        Sinks.EmitResult result = emit(pendingBid);
+        if (result.isFailure()) {
+            inFlight.remove(pendingBid);
+            log.warn("BidWriter 대기열 추가 실패 auctionId: {}, result: {}", bid.getAuctionId(), result);
+            return bidRepository.save(bid);
+        }
+        return pendingBid.ack().asMono()
+                .timeout(ackTimeout)
+                .doOnError(TimeoutException.class, e -> {
+                    log.error("BidWriter 저장 응답 시간 초과 auctionId: {}", bid.getAuctionId());
+                    fail(pendingBid, e);
+                });
+    }
+
+    /**
+     * 문서별 결과를 입찰에 맞춰 돌려줄 수 있도록 _id 를 미리 정한다.
+     * _id 가 있으면 auditing 이 새 문서로 보지 않아 @CreatedDate 를 채우지 않으므로 시각도 함께 채운다.
+     */
+    private static BidDocument identify(BidDocument bid) {
+        if (bid.getId() != null) {
+            return bid;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return bid.toBuilder()
+                .id(new ObjectId().toHexString())
+                .bidedAt(bid.getBidedAt() != null ? bid.getBidedAt() : now)
+                .createdAt(bid.getCreatedAt() != null ? bid.getCreatedAt() : now)
+                .build();
+    }
+
+    private synchronized Sinks.EmitResult emit(PendingBid pendingBid) {
+        // unicast sink 는 동시에 emit 할 수 없으므로 호출을 직렬화한다.
+        return pendingBids.tryEmitNext(pendingBid);
+    }
+
+    private void fail(PendingBid pendingBid, Throwable error) {
+        inFlight.remove(pendingBid);
+        pendingBid.ack().tryEmitError(error);
+    }
+
+    private void complete(PendingBid pendingBid) {
+        inFlight.remove(pendingBid);
+        pendingBid.ack().tryEmitValue(pendingBid.bid());
+    }
+
+    private Mono<Void> flush(List<PendingBid> batch) {
+        return bidRepository.insertUnordered(batch.stream().map(PendingBid::bid).toList())
+                .doOnNext(failed -> {
+                    if (!failed.isEmpty()) {
+                        log.error("BidWriter insertMany 일부 실패 size: {}, failed: {}", batch.size(), failed.size());
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        PendingBid pendingBid = batch.get(i);
+                        if (failed.contains(i)) {
+                            fail(pendingBid, new IllegalStateException("입찰 저장 실패 auctionId: " + pendingBid.bid().getAuctionId()));
+                        } else {
+                            complete(pendingBid);
+                        }
+                    }
+                })
+                .doOnError(e -> {
+                    log.error("BidWriter insertMany 실패 size: {}, {}", batch.size(), e.getMessage());
+                    batch.forEach(pendingBid -> fail(pendingBid, e));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private record PendingBid(BidDocument bid, Sinks.One<BidDocument> ack) {
+    }
+}
@@ -0,0 +1,88 @@
+package shop.biday.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import shop.biday.service.SseConnectionRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 입찰 SSE 연결 수를 전체와 경매별로 센다.
+ * 상한을 넘는 연결은 스트림을 열기 전에 거절하므로 노드가 감당할 수 있는 구독자 수가 정해진다.
+ * tryOpen 이 true 를 돌려준 연결은 끝날 때 반드시 close 해야 한다.
+ */
+@Slf4j
+@Service
+public class SseConnectionRegistryImpl implements SseConnectionRegistry {
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final Map<Long, Integer> perAuction = new ConcurrentHashMap<>();
+
+    private final int maxConnections;
+    private final int maxConnectionsPerAuction;
+    private final Counter rejectedByTotal;
+    private final Counter rejectedByAuction;
+
+    public SseConnectionRegistryImpl(MeterRegistry meterRegistry,
+                                     @Value("${auction.bid.stream.max-connections:10000}") int maxConnections,
+                                     @Value("${auction.bid.stream.max-connections-per-auction:1000}") int maxConnectionsPerAuction) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerAuction = maxConnectionsPerAuction;
+
+        Gauge.builder("auction.sse.connections", total, AtomicInteger::get)
+                .description("열려 있는 입찰 SSE 연결 수")
+                .register(meterRegistry);
+        Gauge.builder("auction.sse.auctions", perAuction, Map::size)
+                .description("SSE 구독자가 있는 경매 수")
+                .register(meterRegistry);
+        this.rejectedByTotal = Counter.builder("auction.sse.rejected")
+                .tag("reason", "total")
+                .register(meterRegistry);
+        this.rejectedByAuction = Counter.builder("auction.sse.rejected")
+                .tag("reason", "auction")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean tryOpen(Long auctionId) {
+        if (total.incrementAndGet() > maxConnections) {
+            total.decrementAndGet();
+            rejectedByTotal.increment();
+            log.warn("SSE 전체 연결 수 초과 auctionId: {}, max: {}", auctionId, maxConnections);
+            return false;
+        }
+
+        boolean[] opened = {false};
+        perAuction.compute(auctionId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConnectionsPerAuction) {
+                return count;
+            }
+            opened[0] = true;
+            return current + 1;
+        });
+        if (!opened[0]) {
+            total.decrementAndGet();
+            rejectedByAuction.increment();
+            log.warn("SSE 경매별 연결 수 초과 auctionId: {}, max: {}", auctionId, maxConnectionsPerAuction);
+        }
+        return opened[0];
+    }
+
+    @Override
+    public void close(Long auctionId) {
+        perAuction.computeIfPresent(auctionId, (id, count) -> count > 1 ? count - 1 : null);
+        total.decrementAndGet();
+    }
+
+    @Override
+    public int connections() {
+        return total.get();
+    }
+}
@@ -0,0 +1,15 @@
+package shop.biday.utils;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigInteger;
+
+@WritingConverter
+public class BigIntegerToLongConverter implements Converter<BigInteger, Long> {
+
+    @Override
+    public Long convert(BigInteger source) {
+        return source.longValueExact();
+    }
+}
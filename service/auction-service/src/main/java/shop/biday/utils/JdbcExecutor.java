@@ -0,0 +1,63 @@
+package shop.biday.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import shop.biday.exception.BidException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JPA/QueryDSL 같은 블로킹 JDBC 호출을 event loop 밖에서 실행한다.
+ * 스레드 수는 Hikari 풀 크기에 맞추어 커넥션을 기다리며 쉬는 스레드가 생기지 않게 하고,
+ * 대기열이 가득 차면 바로 503 으로 거절한다. 실행기 지표는 auction.jdbc 이름으로 노출된다.
+ */
+@Slf4j
+@Component
+public class JdbcExecutor {
+
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+
+    public JdbcExecutor(MeterRegistry meterRegistry,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                        @Value("${auction.jdbc.queue-capacity:1000}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "auction.jdbc");
+        this.scheduler = Schedulers.fromExecutorService(executor, "jdbc");
+        log.info("JdbcExecutor poolSize: {}, queueCapacity: {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.dispose();
+        executor.shutdown();
+    }
+
+    public <T> Mono<T> call(Callable<T> callable) {
+        return Mono.fromCallable(callable)
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> new BidException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "JDBC_BUSY", "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."));
+    }
+}
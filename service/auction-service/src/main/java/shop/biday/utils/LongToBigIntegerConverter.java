@@ -0,0 +1,15 @@
+package shop.biday.utils;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.math.BigInteger;
+
+@ReadingConverter
+public class LongToBigIntegerConverter implements Converter<Long, BigInteger> {
+
+    @Override
+    public BigInteger convert(Long source) {
+        return BigInteger.valueOf(source);
+    }
+}
@@ -0,0 +1,45 @@
+package shop.biday.cache;
+
+import org.junit.jupiter.api.Test;
+import shop.biday.cache.AuctionListingCache.ListingKey;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuctionListingCacheTest {
+
+    private static ListingKey key(Long sizeId) {
+        return new ListingKey("size", sizeId, "endedAt", null, 20);
+    }
+
+    @Test
+    void doesNotStoreValueLoadedAcrossInvalidation() {
+        AuctionListingCache cache = new AuctionListingCache(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get(key(1L), () -> {
+            cache.invalidate(1L);
+            return "stale-" + loads.incrementAndGet();
+        });
+        String second = cache.get(key(1L), () -> "fresh-" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("stale-1");
+        assertThat(second).isEqualTo("fresh-2");
+        assertThat(cache.<String>get(key(1L), () -> "reloaded")).isEqualTo("fresh-2");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedListingInsteadOfClearingAll() {
+        AuctionListingCache cache = new AuctionListingCache(60_000, 2);
+        cache.get(key(1L), () -> "size-1");
+        cache.get(key(2L), () -> "size-2");
+        // size-1 을 다시 읽어 size-2 가 가장 오래 쓰지 않은 목록이 된다.
+        cache.get(key(1L), () -> "reloaded-1");
+        cache.get(key(3L), () -> "size-3");
+
+        assertThat(cache.<String>get(key(1L), () -> "reloaded-1")).isEqualTo("size-1");
+        assertThat(cache.<String>get(key(3L), () -> "reloaded-3")).isEqualTo("size-3");
+        assertThat(cache.<String>get(key(2L), () -> "reloaded-2")).isEqualTo("reloaded-2");
+    }
+}
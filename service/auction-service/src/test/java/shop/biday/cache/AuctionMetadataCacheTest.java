@@ -0,0 +1,82 @@
+package shop.biday.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import shop.biday.cache.AuctionMetadataCache.AuctionMetadata;
+import shop.biday.model.dto.AuctionDto;
+import shop.biday.model.dto.AuctionEvent;
+import shop.biday.model.repository.AuctionReadRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuctionMetadataCacheTest {
+
+    private static final Long AUCTION_ID = 1L;
+
+    private AuctionReadRepository auctionReadRepository;
+    private AuctionMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        auctionReadRepository = mock(AuctionReadRepository.class);
+        cache = new AuctionMetadataCache(auctionReadRepository, mock(ReactiveStringRedisTemplate.class),
+                100, 60_000, 60_000, false, "test");
+    }
+
+    @Test
+    void loadFinishingAfterCloseEventDoesNotOverwriteIt() {
+        Sinks.One<AuctionDto> pending = Sinks.one();
+        when(auctionReadRepository.findAuction(AUCTION_ID)).thenReturn(pending.asMono());
+
+        Mono<AuctionMetadata> loading = cache.get(AUCTION_ID);
+        loading.subscribe();
+        // 읽는 도중 경매가 종료되었다.
+        cache.onAuctionEvent(new AuctionEvent(AuctionEvent.Type.CLOSED, auction(true), null));
+        pending.tryEmitValue(auction(false));
+
+        assertThat(loading.block(Duration.ofSeconds(1)).status()).isFalse();
+        assertThat(cache.get(AUCTION_ID).block(Duration.ofSeconds(1)).status()).isTrue();
+    }
+
+    @Test
+    void remembersMissingAuction() {
+        when(auctionReadRepository.findAuction(AUCTION_ID)).thenReturn(Mono.empty());
+
+        assertThat(cache.get(AUCTION_ID).blockOptional(Duration.ofSeconds(1))).isEmpty();
+        assertThat(cache.get(AUCTION_ID).blockOptional(Duration.ofSeconds(1))).isEmpty();
+
+        verify(auctionReadRepository, times(1)).findAuction(AUCTION_ID);
+    }
+
+    @Test
+    void createdEventReplacesRememberedMissingAuction() {
+        when(auctionReadRepository.findAuction(AUCTION_ID)).thenReturn(Mono.empty());
+        assertThat(cache.get(AUCTION_ID).blockOptional(Duration.ofSeconds(1))).isEmpty();
+
+        cache.onAuctionEvent(new AuctionEvent(AuctionEvent.Type.CREATED, auction(false), null));
+
+        assertThat(cache.get(AUCTION_ID).blockOptional(Duration.ofSeconds(1))).isPresent();
+    }
+
+    private static AuctionDto auction(boolean status) {
+        LocalDateTime now = LocalDateTime.now();
+        return AuctionDto.builder()
+                .id(AUCTION_ID)
+                .sizeId(1L)
+                .startingBid(10000L)
+                .startedAt(now.minusHours(1))
+                .endedAt(now.plusHours(1))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,281 @@
+package shop.biday.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import shop.biday.cache.AuctionListingCache;
+import shop.biday.cache.BidSnapshotCache;
+import shop.biday.cache.OpenAuctionIndex;
+import shop.biday.config.QueryDslConfig;
+import shop.biday.model.document.BidDocument;
+import shop.biday.model.entity.AuctionCloseDeadLetterEntity;
+import shop.biday.model.entity.AuctionEntity;
+import shop.biday.model.repository.AuctionCloseDeadLetterRepository;
+import shop.biday.model.repository.AuctionReadRepository;
+import shop.biday.model.repository.AuctionRepository;
+import shop.biday.model.repository.AwardOutboxRepository;
+import shop.biday.model.repository.AwardRepository;
+import shop.biday.service.AuctionCloseDeadLetterService;
+import shop.biday.service.AuctionPriceService;
+import shop.biday.service.AuctionService;
+import shop.biday.service.AwardService;
+import shop.biday.service.BidArchiveService;
+import shop.biday.service.BidFanoutService;
+import shop.biday.service.BidService;
+import shop.biday.service.impl.AuctionServiceImpl;
+import shop.biday.service.impl.AwardServiceImpl;
+import shop.biday.utils.JdbcExecutor;
+import shop.biday.utils.UserInfoUtils;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 같은 DB(H2, MODE=MySQL) 를 쓰는 AuctionClosePipeline 여러 개를 한 JVM 에 띄워 노드 여러 대를 흉내 낸다.
+ * 각 인스턴스는 JdbcExecutor 와 Mongo 쪽 협력 객체를 따로 갖고, 경매/낙찰 테이블만 공유한다.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auction-close;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql("/sql/auction-close.sql")
+class AuctionCloseMultiInstanceTest {
+
+    private static final int INSTANCES = 3;
+    private static final long TIMEOUT_MILLIS = 10_000L;
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = AuctionEntity.class)
+    @EnableJpaRepositories(basePackageClasses = AuctionRepository.class)
+    @Import(QueryDslConfig.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private AuctionRepository auctionRepository;
+
+    @Autowired
+    private AwardRepository awardRepository;
+
+    @Autowired
+    private AwardOutboxRepository awardOutboxRepository;
+
+    @Autowired
+    private AuctionCloseDeadLetterRepository deadLetterRepository;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < INSTANCES; i++) {
+            nodes.add(new Node());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::stop);
+        nodes.clear();
+    }
+
+    @Test
+    void closeIfOpenLetsOnlyOneCallerWin() throws Exception {
+        Long auctionId = createEndedAuction().getId();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> closers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                closers.add(() -> auctionRepository.closeIfOpen(auctionId));
+            }
+            int updated = 0;
+            for (Future<Integer> result : executor.invokeAll(closers)) {
+                updated += result.get();
+            }
+            assertThat(updated).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void everyInstanceEnqueuingTheSameAuctionsSavesOneAwardEach() throws Exception {
+        List<Long> auctionIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            auctionIds.add(createEndedAuction().getId());
+        }
+
+        for (Long auctionId : auctionIds) {
+            nodes.forEach(node -> assertThat(node.pipeline.enqueue(auctionId)).isTrue());
+        }
+
+        await(() -> auctionIds.stream().allMatch(this::isClosed));
+        assertThat(awardRepository.count()).isEqualTo(auctionIds.size());
+        assertThat(awardOutboxRepository.count()).isEqualTo(auctionIds.size());
+        nodes.forEach(node -> verify(node.deadLetterService, never()).record(anyLong(), anyString(), anyInt(), anyString()));
+    }
+
+    @Test
+    void sweeperFinishesAuctionLeftHalfClosedByDeadInstance() throws Exception {
+        Long auctionId = createEndedAuction().getId();
+        // 종료한 노드가 status 만 바꾸고 낙찰을 저장하기 전에 죽었다.
+        assertThat(auctionRepository.closeIfOpen(auctionId)).isEqualTo(1);
+
+        // 일반 요청은 다른 노드가 종료 중인 것으로 보고 넘어간다.
+        assertThat(nodes.get(0).pipeline.enqueue(auctionId)).isTrue();
+        Thread.sleep(500);
+        assertThat(isClosed(auctionId)).isFalse();
+        assertThat(awardRepository.existsByAuctionId(auctionId)).isFalse();
+
+        Node survivor = nodes.get(1);
+        AuctionCloseSweeper sweeper = new AuctionCloseSweeper(survivor.auctionService, survivor.pipeline,
+                new AuctionCloseShards(mock(ReactiveStringRedisTemplate.class), false, "nodes", "", 3000, 10000),
+                survivor.jdbcExecutor, 60_000, 0, 86_400_000, 100);
+        assertThat(sweeper.sweep().block()).isEqualTo(1L);
+
+        await(() -> isClosed(auctionId));
+        assertThat(awardRepository.existsByAuctionId(auctionId)).isTrue();
+        assertThat(awardRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweeperSkipsDeadLetteredAuctionUntilRedriven() throws Exception {
+        Long auctionId = createEndedAuction().getId();
+        deadLetterRepository.save(AuctionCloseDeadLetterEntity.builder()
+                .auctionId(auctionId)
+                .source("pipeline.award")
+                .attempts(5)
+                .reason("failed")
+                .build());
+
+        Node survivor = nodes.get(0);
+        AuctionCloseSweeper sweeper = new AuctionCloseSweeper(survivor.auctionService, survivor.pipeline,
+                new AuctionCloseShards(mock(ReactiveStringRedisTemplate.class), false, "nodes", "", 3000, 10000),
+                survivor.jdbcExecutor, 60_000, 0, 86_400_000, 100);
+        assertThat(sweeper.sweep().block()).isZero();
+
+        deadLetterRepository.deleteById(auctionId);
+        assertThat(sweeper.sweep().block()).isEqualTo(1L);
+        await(() -> isClosed(auctionId));
+    }
+
+    @Test
+    void recoveringRequestOnlyMarksAuctionWhoseAwardIsAlreadySaved() throws Exception {
+        Long auctionId = createEndedAuction().getId();
+        Node first = nodes.get(0);
+        assertThat(first.pipeline.enqueue(auctionId)).isTrue();
+        await(() -> isClosed(auctionId));
+
+        // closedAt 을 채우기 전에 멈춘 상태로 되돌린다.
+        AuctionEntity auction = auctionRepository.findById(auctionId).orElseThrow();
+        auction.setClosedAt(null);
+        auctionRepository.save(auction);
+
+        assertThat(nodes.get(2).pipeline.enqueue(auctionId, true)).isTrue();
+        await(() -> isClosed(auctionId));
+        assertThat(awardRepository.count()).isEqualTo(1);
+        assertThat(awardOutboxRepository.count()).isEqualTo(1);
+    }
+
+    private AuctionEntity createEndedAuction() {
+        LocalDateTime now = LocalDateTime.now();
+        return auctionRepository.save(AuctionEntity.builder()
+                .userId("seller")
+                .sizeId(1L)
+                .description("description")
+                .startingBid(10000L)
+                .currentBid(10000L)
+                .startedAt(now.minusHours(1))
+                .endedAt(now.minusSeconds(1))
+                .status(false)
+                .build());
+    }
+
+    private boolean isClosed(Long auctionId) {
+        return auctionRepository.findById(auctionId)
+                .map(auction -> auction.getClosedAt() != null)
+                .orElse(false);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timed out").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * 노드 하나. DB 는 공유하고 나머지 협력 객체는 노드마다 따로 만든다.
+     */
+    private class Node {
+
+        private final JdbcExecutor jdbcExecutor = new JdbcExecutor(new SimpleMeterRegistry(), 4, 1000);
+        private final AuctionCloseDeadLetterService deadLetterService = mock(AuctionCloseDeadLetterService.class);
+        private final AuctionService auctionService;
+        private final AuctionClosePipeline pipeline;
+
+        Node() {
+            UserInfoUtils userInfoUtils = mock(UserInfoUtils.class);
+            AuctionReadRepository auctionReadRepository = mock(AuctionReadRepository.class);
+            this.auctionService = new AuctionServiceImpl(auctionRepository, auctionReadRepository,
+                    mock(AuctionEndScheduler.class), userInfoUtils, mock(AuctionListingCache.class),
+                    mock(OpenAuctionIndex.class), mock(ApplicationEventPublisher.class));
+            AwardService awardService = new AwardServiceImpl(awardRepository, auctionReadRepository,
+                    awardOutboxRepository, userInfoUtils);
+
+            BidService bidService = mock(BidService.class);
+            when(bidService.findTopBidByAuctionId(anyLong())).thenAnswer(invocation -> Mono.just(BidDocument.builder()
+                    .auctionId(invocation.getArgument(0))
+                    .userId("buyer")
+                    .currentBid(BigInteger.valueOf(20000))
+                    .bidedAt(LocalDateTime.now())
+                    .build()));
+            when(bidService.countBidByAuctionIdAndUserId(anyLong(), anyString())).thenReturn(Mono.just(1L));
+            when(bidService.updateAward(anyLong())).thenReturn(Mono.just(true));
+
+            this.pipeline = new AuctionClosePipeline(auctionService, awardService, bidService,
+                    mock(BidFanoutService.class), mock(BidSnapshotCache.class), mock(AuctionPriceService.class),
+                    mock(BidArchiveService.class), deadLetterService, jdbcExecutor,
+                    4, 3, 10, 100, 10, 20, 1000);
+            pipeline.start();
+        }
+
+        void stop() {
+            pipeline.stop();
+            jdbcExecutor.stop();
+        }
+    }
+}
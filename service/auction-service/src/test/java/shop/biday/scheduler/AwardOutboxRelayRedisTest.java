@@ -0,0 +1,175 @@
+package shop.biday.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import shop.biday.model.entity.AwardOutboxEntity;
+import shop.biday.model.repository.AwardOutboxRepository;
+import shop.biday.utils.JdbcExecutor;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * localhost:6379 의 Redis 로 AwardOutboxRelay 의 XADD 와 consumer group 을 고려한 trim 을 확인한다.
+ * Redis 가 떠 있지 않으면 건너뛴다.
+ */
+class AwardOutboxRelayRedisTest {
+
+    private static final String GROUP = "award-consumers";
+    private static final int EVENTS = 5;
+
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveStringRedisTemplate redisTemplate;
+    private JdbcExecutor jdbcExecutor;
+    private AwardOutboxRepository awardOutboxRepository;
+    private AuctionCloseShards auctionCloseShards;
+    private AwardOutboxRelay relay;
+    private String streamKey;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+        Assumptions.assumeTrue(isReachable(), "localhost:6379 Redis 가 필요합니다.");
+
+        streamKey = "test:auction:awards:" + UUID.randomUUID();
+        jdbcExecutor = new JdbcExecutor(new SimpleMeterRegistry(), 2, 100);
+        awardOutboxRepository = mock(AwardOutboxRepository.class);
+        auctionCloseShards = new AuctionCloseShards(redisTemplate, false, "nodes", "relay-node", 3000, 10000);
+        // stream-max-length 를 2 로 두어 consumer group 이 있을 때 길이로 자르지 않는지 본다.
+        relay = relay("");
+    }
+
+    private AwardOutboxRelay relay(String consumerGroup) {
+        return new AwardOutboxRelay(awardOutboxRepository, redisTemplate, jdbcExecutor,
+                mock(PlatformTransactionManager.class), auctionCloseShards, new SimpleMeterRegistry(),
+                streamKey, 2, 10, 1000, 3600000, 86400000, 30000, consumerGroup);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (streamKey != null) {
+            redisTemplate.delete(streamKey).block(Duration.ofSeconds(1));
+        }
+        if (jdbcExecutor != null) {
+            jdbcExecutor.stop();
+        }
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void relayPublishesClaimedEventsAndMarksThem() {
+        List<AwardOutboxEntity> events = events();
+        when(awardOutboxRepository.findClaimable(any(), any())).thenReturn(events, List.of());
+        when(awardOutboxRepository.markPublished(anyList(), any())).thenReturn(EVENTS);
+
+        assertThat(relay.relay().block(Duration.ofSeconds(5))).isEqualTo((long) EVENTS);
+
+        assertThat(redisTemplate.opsForStream().size(streamKey).block()).isEqualTo((long) EVENTS);
+        // 한 batch 는 claim 한 순서대로 들어간다.
+        assertThat(redisTemplate.opsForStream().range(streamKey, Range.unbounded())
+                .map(record -> record.getValue().get("eventId"))
+                .collectList()
+                .block()).containsExactly("1", "2", "3", "4", "5");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getClaimedBy()).isEqualTo("relay-node");
+            assertThat(event.getClaimedUntil()).isAfter(LocalDateTime.now());
+        });
+        verify(awardOutboxRepository).markPublished(eq(events.stream().map(AwardOutboxEntity::getId).toList()), any());
+    }
+
+    @Test
+    void trimKeepsEntriesNotAckedByConsumerGroup() {
+        when(awardOutboxRepository.findClaimable(any(), any())).thenReturn(events(), List.of());
+        when(awardOutboxRepository.markPublished(anyList(), any())).thenReturn(EVENTS);
+        relay.relay().block(Duration.ofSeconds(5));
+
+        redisTemplate.opsForStream().createGroup(streamKey, ReadOffset.from("0-0"), GROUP).block();
+        List<MapRecord<String, Object, Object>> delivered = redisTemplate.opsForStream()
+                .read(Consumer.from(GROUP, "consumer-1"), StreamReadOptions.empty().count(3),
+                        StreamOffset.create(streamKey, ReadOffset.lastConsumed()))
+                .collectList()
+                .block();
+        assertThat(delivered).hasSize(3);
+        redisTemplate.opsForStream().acknowledge(streamKey, GROUP, delivered.get(0).getId()).block();
+
+        relay.trim().block(Duration.ofSeconds(5));
+
+        // ack 하지 않은 두 건과 아직 전달되지 않은 두 건은 남아 있어야 한다.
+        List<String> remaining = redisTemplate.opsForStream()
+                .range(streamKey, Range.unbounded())
+                .map(record -> record.getId().getValue())
+                .collectList()
+                .block();
+        assertThat(remaining).contains(
+                delivered.get(1).getId().getValue(),
+                delivered.get(2).getId().getValue());
+        assertThat(remaining).hasSizeGreaterThanOrEqualTo(EVENTS - 1);
+    }
+
+    @Test
+    void configuredConsumerGroupKeepsUnreadEventsFromBeingTrimmed() {
+        AwardOutboxRelay groupedRelay = relay(GROUP);
+        assertThat(groupedRelay.ensureGroup().block(Duration.ofSeconds(5))).isTrue();
+        // 이미 있으면 그대로 둔다.
+        assertThat(groupedRelay.ensureGroup().block(Duration.ofSeconds(5))).isFalse();
+
+        when(awardOutboxRepository.findClaimable(any(), any())).thenReturn(events(), List.of());
+        when(awardOutboxRepository.markPublished(anyList(), any())).thenReturn(EVENTS);
+        groupedRelay.relay().block(Duration.ofSeconds(5));
+
+        assertThat(redisTemplate.opsForStream().size(streamKey).block()).isEqualTo((long) EVENTS);
+    }
+
+    private boolean isReachable() {
+        try {
+            return "PONG".equals(connectionFactory.getReactiveConnection().ping().block(Duration.ofSeconds(1)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static List<AwardOutboxEntity> events() {
+        List<AwardOutboxEntity> events = new ArrayList<>();
+        for (long id = 1; id <= EVENTS; id++) {
+            events.add(AwardOutboxEntity.builder()
+                    .id(id)
+                    .eventType(AwardOutboxEntity.AWARD_CREATED)
+                    .awardId(id)
+                    .auctionId(100 + id)
+                    .userId("buyer")
+                    .currentBid(BigInteger.valueOf(20000))
+                    .bidedAt(LocalDateTime.now())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return events;
+    }
+}
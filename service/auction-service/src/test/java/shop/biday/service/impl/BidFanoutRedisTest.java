@@ -0,0 +1,160 @@
+package shop.biday.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import shop.biday.config.RedisConfig;
+import shop.biday.model.dto.BidResponse;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * localhost:6379 의 Redis 를 공유하는 BidFanoutServiceImpl 두 개로 노드 간 입찰/종료 전달을 확인한다.
+ * Redis 가 떠 있지 않으면 건너뛴다.
+ */
+class BidFanoutRedisTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000L;
+
+    private final List<Node> nodes = new CopyOnWriteArrayList<>();
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveRedisTemplate<String, BidResponse> bidRedisTemplate;
+    private Long auctionId;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        Assumptions.assumeTrue(isReachable(), "localhost:6379 Redis 가 필요합니다.");
+
+        bidRedisTemplate = new RedisConfig().bidRedisTemplate(connectionFactory, new ObjectMapper());
+        auctionId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::stop);
+        nodes.clear();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void bidPublishedOnOneNodeReachesListenerOnAnother() throws Exception {
+        Node publisher = new Node();
+        Node subscriber = new Node();
+        List<BidResponse> received = new CopyOnWriteArrayList<>();
+        Disposable listening = subscriber.fanoutService.listen(auctionId).subscribe(received::add);
+        try {
+            await(() -> subscribers("auction:bids:" + auctionId) >= 1);
+
+            publisher.fanoutService.publish(bid(20000));
+            publisher.fanoutService.publish(bid(21000));
+
+            await(() -> received.size() == 2);
+            assertThat(received).containsExactly(bid(20000), bid(21000));
+        } finally {
+            listening.dispose();
+        }
+    }
+
+    @Test
+    void closeOnOneNodeCompletesListenersOnEveryNode() throws Exception {
+        Node closer = new Node();
+        Node subscriber = new Node();
+        AtomicBoolean completed = new AtomicBoolean();
+        Disposable listening = subscriber.fanoutService.listen(auctionId)
+                .doOnComplete(() -> completed.set(true))
+                .subscribe();
+        try {
+            await(() -> subscribers("auction:bids:" + auctionId) >= 1);
+            await(() -> subscribers("auction:closes") >= 2);
+
+            closer.fanoutService.close(auctionId);
+
+            await(completed::get);
+            // 구독을 정리했으므로 경매 채널 구독도 풀린다.
+            await(() -> subscribers("auction:bids:" + auctionId) == 0);
+        } finally {
+            listening.dispose();
+        }
+    }
+
+    private long subscribers(String channel) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Object reply = connection.execute("PUBSUB", "NUMSUB".getBytes(StandardCharsets.UTF_8),
+                    channel.getBytes(StandardCharsets.UTF_8));
+            // [channel, count]
+            return (Long) ((List<?>) reply).get(1);
+        }
+    }
+
+    private boolean isReachable() {
+        try {
+            return "PONG".equals(connectionFactory.getReactiveConnection().ping().block(Duration.ofSeconds(1)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private BidResponse bid(long amount) {
+        return BidResponse.builder()
+                .auctionId(auctionId)
+                .currentBid(BigInteger.valueOf(amount))
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timed out").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * 노드 하나. Redis 연결은 공유하고 구독 컨테이너와 fanout 서비스는 노드마다 따로 만든다.
+     */
+    private class Node {
+
+        private final ReactiveRedisMessageListenerContainer listenerContainer;
+        private final BidFanoutServiceImpl fanoutService;
+
+        @SuppressWarnings("unchecked")
+        Node() {
+            listenerContainer = new ReactiveRedisMessageListenerContainer(connectionFactory);
+            ObjectProvider<ReactiveRedisMessageListenerContainer> provider = mock(ObjectProvider.class);
+            when(provider.getIfAvailable()).thenReturn(listenerContainer);
+            fanoutService = new BidFanoutServiceImpl(bidRedisTemplate, provider, new SimpleMeterRegistry(),
+                    true, 60_000, 30_000);
+            fanoutService.start();
+            nodes.add(this);
+        }
+
+        void stop() {
+            fanoutService.dispose();
+            listenerContainer.destroy();
+        }
+    }
+}
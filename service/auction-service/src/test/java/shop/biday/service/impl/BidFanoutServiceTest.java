@@ -0,0 +1,94 @@
+package shop.biday.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import shop.biday.model.dto.BidResponse;
+
+import java.math.BigInteger;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * auction.bid.fanout.redis=false 일 때 한 노드 안에서의 전달 순서와 sink 정리를 확인한다.
+ */
+class BidFanoutServiceTest {
+
+    private static final Long AUCTION_ID = 1L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BidFanoutServiceImpl fanoutService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fanoutService = new BidFanoutServiceImpl(mock(ReactiveRedisTemplate.class),
+                mock(ObjectProvider.class), meterRegistry, false, 60_000, 30_000);
+        fanoutService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanoutService.dispose();
+    }
+
+    @Test
+    void sendsSnapshotFirstAndOnlyHigherBidsAfterIt() {
+        Sinks.One<BidResponse> snapshot = Sinks.one();
+
+        StepVerifier.create(fanoutService.listen(AUCTION_ID, snapshot.asMono()))
+                .then(() -> {
+                    // 스냅샷을 읽는 동안 들어온 입찰. 스냅샷보다 낮으면 이미 반영된 것이다.
+                    fanoutService.publish(bid(15000));
+                    fanoutService.publish(bid(21000));
+                    snapshot.tryEmitValue(bid(20000));
+                })
+                .expectNext(bid(20000))
+                .expectNext(bid(21000))
+                .then(() -> fanoutService.publish(bid(25000)))
+                .expectNext(bid(25000))
+                .then(() -> assertThat(fanoutService.close(AUCTION_ID)).isTrue())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void sendsEveryLiveBidWhenThereIsNoSnapshot() {
+        StepVerifier.create(fanoutService.listen(AUCTION_ID, Mono.empty()))
+                .then(() -> fanoutService.publish(bid(15000)))
+                .expectNext(bid(15000))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void releasesSinkWhenLastListenerLeaves() {
+        StepVerifier.create(fanoutService.listen(AUCTION_ID))
+                .then(() -> assertThat(sinks()).isEqualTo(1.0))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(sinks()).isZero();
+        assertThat(fanoutService.close(AUCTION_ID)).isFalse();
+    }
+
+    private double sinks() {
+        return meterRegistry.get("auction.sse.sinks").gauge().value();
+    }
+
+    private static BidResponse bid(long amount) {
+        return BidResponse.builder()
+                .auctionId(AUCTION_ID)
+                .currentBid(BigInteger.valueOf(amount))
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+DROP TABLE IF EXISTS auction_close_dead_letters;
+DROP TABLE IF EXISTS award_outbox;
+DROP TABLE IF EXISTS awards;
+DROP TABLE IF EXISTS auctions;
+
+CREATE TABLE auctions
+(
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id      VARCHAR(255)                        NOT NULL,
+    size_id      BIGINT                              NOT NULL,
+    description  VARCHAR(1000)                       NOT NULL,
+    starting_bid BIGINT                              NOT NULL,
+    current_bid  BIGINT                              NOT NULL,
+    started_at   TIMESTAMP                           NOT NULL,
+    ended_at     TIMESTAMP                           NOT NULL,
+    status       BOOLEAN   DEFAULT FALSE             NOT NULL,
+    closed_at    TIMESTAMP,
+    created_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updated_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE awards
+(
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    auction_id  BIGINT         NOT NULL,
+    user_id     VARCHAR(255)   NOT NULL,
+    bided_at    TIMESTAMP      NOT NULL,
+    current_bid DECIMAL(38, 0) NOT NULL,
+    count       BIGINT DEFAULT 1 NOT NULL,
+    CONSTRAINT uk_awards_auction UNIQUE (auction_id)
+);
+
+CREATE TABLE award_outbox
+(
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type    VARCHAR(255)   NOT NULL,
+    award_id      BIGINT         NOT NULL,
+    auction_id    BIGINT         NOT NULL,
+    user_id       VARCHAR(255)   NOT NULL,
+    current_bid   DECIMAL(38, 0) NOT NULL,
+    bided_at      TIMESTAMP      NOT NULL,
+    created_at    TIMESTAMP      NOT NULL,
+    published_at  TIMESTAMP,
+    claimed_by    VARCHAR(255),
+    claimed_until TIMESTAMP
+);
+
+CREATE TABLE auction_close_dead_letters
+(
+    auction_id BIGINT        NOT NULL PRIMARY KEY,
+    source     VARCHAR(255)  NOT NULL,
+    attempts   INT           NOT NULL,
+    reason     VARCHAR(1000),
+    failed_at  TIMESTAMP     NOT NULL
+);